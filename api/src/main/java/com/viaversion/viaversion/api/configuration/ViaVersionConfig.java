@@ -463,4 +463,42 @@ public interface ViaVersionConfig extends Config {
      * @return true if enabled
      */
     boolean isArmorToggleFix();
+
+    /**
+     * Returns the zlib compression level used when packets have to be recompressed by Via, not affecting the server's compressor.
+     *
+     * @return compression level from 0 to 9, or -1 for the default level
+     */
+    int getCompressionLevel();
+
+    /**
+     * Returns the size of the transformed packet cache shared between all players.
+     *
+     * @return cache size in megabytes, or 0 if disabled
+     */
+    int getPacketCacheSize();
+
+    /**
+     * Returns the number of worker threads chunk packets are transformed on instead of the event loops.
+     *
+     * @return number of worker threads, or 0 if disabled
+     */
+    int getChunkTranslationThreads();
+
+    /**
+     * Returns the maximum number of chunk packets waiting for a worker thread
+     * before they are transformed on the event loop again.
+     *
+     * @return maximum queue size
+     */
+    int getChunkTranslationQueueSize();
+
+    /**
+     * Returns whether mapping data of protocols that are not on a path to the server version is only loaded
+     * once a connection needs it, instead of loading all mapping data on startup. The packets of that connection are
+     * held back until its mapping data has been loaded.
+     *
+     * @return true if mapping data of unused protocols is loaded on demand
+     */
+    boolean isLazyMappingLoading();
 }
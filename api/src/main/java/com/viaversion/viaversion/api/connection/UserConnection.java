@@ -223,6 +223,32 @@ public interface UserConnection {
      */
     void transformServerbound(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception;
 
+    /**
+     * Transforms the clientbound packet contained in ByteBuf, writing the result into the given output buffer.
+     * Unlike {@link #transformClientbound(ByteBuf, Function)}, the packet is not copied back into the input buffer.
+     *
+     * @param buf            ByteBuf with packet id and packet contents, its reader index will be moved
+     * @param output         ByteBuf to write the transformed packet to
+     * @param cancelSupplier function called with original CancelException for generating the Exception when the packet is cancelled
+     * @throws CancelException      if the packet should be cancelled
+     * @throws InformativeException if packet transforming failed
+     * @throws Exception            if any other processing outside of transforming fails
+     */
+    void transformClientbound(ByteBuf buf, ByteBuf output, Function<Throwable, Exception> cancelSupplier) throws Exception;
+
+    /**
+     * Transforms the serverbound packet contained in ByteBuf, writing the result into the given output buffer.
+     * Unlike {@link #transformServerbound(ByteBuf, Function)}, the packet is not copied back into the input buffer.
+     *
+     * @param buf            ByteBuf with packet id and packet contents, its reader index will be moved
+     * @param output         ByteBuf to write the transformed packet to
+     * @param cancelSupplier function called with original CancelException for generating the Exception when the packet is cancelled
+     * @throws CancelException      if the packet should be cancelled
+     * @throws InformativeException if packet transforming failed
+     * @throws Exception            if any other processing outside of transforming fails
+     */
+    void transformServerbound(ByteBuf buf, ByteBuf output, Function<Throwable, Exception> cancelSupplier) throws Exception;
+
     /**
      * Transforms the packet depending on whether the connection is clientside or not.
      *
@@ -251,6 +277,78 @@ public interface UserConnection {
         }
     }
 
+    /**
+     * Transforms the packet into the output buffer depending on whether the connection is clientside or not.
+     *
+     * @see #transformClientbound(ByteBuf, ByteBuf, Function)
+     * @see #transformServerbound(ByteBuf, ByteBuf, Function)
+     */
+    default void transformOutgoing(ByteBuf buf, ByteBuf output, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        if (isClientSide()) {
+            transformServerbound(buf, output, cancelSupplier);
+        } else {
+            transformClientbound(buf, output, cancelSupplier);
+        }
+    }
+
+    /**
+     * Transforms the packet into the output buffer depending on whether the connection is clientside or not.
+     *
+     * @see #transformClientbound(ByteBuf, ByteBuf, Function)
+     * @see #transformServerbound(ByteBuf, ByteBuf, Function)
+     */
+    default void transformIncoming(ByteBuf buf, ByteBuf output, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        if (isClientSide()) {
+            transformClientbound(buf, output, cancelSupplier);
+        } else {
+            transformServerbound(buf, output, cancelSupplier);
+        }
+    }
+
+    /**
+     * Returns the clientbound packet with only its id remapped if no protocol in the pipeline transforms more than
+     * the packet id, or null if it has to go through {@link #transformClientbound(ByteBuf, Function)}.
+     * <p>
+     * If the remapped id has the same length, it is rewritten in place and the given buffer is returned retained,
+     * else the packet is copied into a new contiguous buffer.
+     *
+     * @param buf ByteBuf with packet id and packet contents
+     * @return retained or new buffer with the remapped packet id, or null if the packet has to be transformed
+     */
+    @Nullable ByteBuf passthroughClientbound(ByteBuf buf);
+
+    /**
+     * Returns the serverbound packet with only its id remapped if no protocol in the pipeline transforms more than
+     * the packet id, or null if it has to go through {@link #transformServerbound(ByteBuf, Function)}.
+     * <p>
+     * If the remapped id has the same length, it is rewritten in place and the given buffer is returned retained,
+     * else the packet is copied into a new contiguous buffer.
+     *
+     * @param buf ByteBuf with packet id and packet contents
+     * @return retained or new buffer with the remapped packet id, or null if the packet has to be transformed
+     */
+    @Nullable ByteBuf passthroughServerbound(ByteBuf buf);
+
+    /**
+     * Passes the packet through depending on whether the connection is clientside or not.
+     *
+     * @see #passthroughClientbound(ByteBuf)
+     * @see #passthroughServerbound(ByteBuf)
+     */
+    default @Nullable ByteBuf passthroughOutgoing(ByteBuf buf) {
+        return isClientSide() ? passthroughServerbound(buf) : passthroughClientbound(buf);
+    }
+
+    /**
+     * Passes the packet through depending on whether the connection is clientside or not.
+     *
+     * @see #passthroughClientbound(ByteBuf)
+     * @see #passthroughServerbound(ByteBuf)
+     */
+    default @Nullable ByteBuf passthroughIncoming(ByteBuf buf) {
+        return isClientSide() ? passthroughClientbound(buf) : passthroughServerbound(buf);
+    }
+
     /**
      * Returns the internal id incremented for each new connection.
      *
@@ -62,6 +62,12 @@ public class MappingDataBase implements MappingData {
 
     @Override
     public void load() {
+        final MappingDataLoader.LoadListener listener = MappingDataLoader.loadListener();
+        final long start = System.nanoTime();
+        if (listener != null) {
+            listener.mappingDataLoading(this);
+        }
+
         if (Via.getManager().isDebug()) {
             getLogger().info("Loading " + unmappedVersion + " -> " + mappedVersion + " mappings...");
         }
@@ -105,6 +111,9 @@ public class MappingDataBase implements MappingData {
         }
 
         loadExtras(data);
+        if (listener != null) {
+            listener.mappingDataLoaded(this, System.nanoTime() - start);
+        }
     }
 
     protected @Nullable CompoundTag readNBTFile(final String name) {
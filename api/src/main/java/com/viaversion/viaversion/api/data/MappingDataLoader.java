@@ -43,9 +43,8 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -55,8 +54,9 @@ public final class MappingDataLoader {
     private static final byte SHIFTS_ID = 1;
     private static final byte CHANGES_ID = 2;
     private static final byte IDENTITY_ID = 3;
-    private static final Map<String, CompoundTag> MAPPINGS_CACHE = new HashMap<>();
+    private static final Map<String, CompoundTag> MAPPINGS_CACHE = new ConcurrentHashMap<>();
     private static boolean cacheValid = true;
+    private static volatile @Nullable LoadListener loadListener;
 
     @Deprecated/*(forRemoval = true)*/
     public static void enableMappingsCache() {
@@ -68,6 +68,20 @@ public final class MappingDataLoader {
         cacheValid = false;
     }
 
+    /**
+     * Sets the listener to be notified about the time spent loading mapping data.
+     * Only used by Via itself to trace its startup, not meant to be used by other plugins.
+     *
+     * @param listener load listener, or null to remove it
+     */
+    public static void setLoadListener(@Nullable final LoadListener listener) {
+        loadListener = listener;
+    }
+
+    static @Nullable LoadListener loadListener() {
+        return loadListener;
+    }
+
     /**
      * Loads the file from the plugin folder if present, else from the bundled resources.
      *
@@ -102,10 +116,13 @@ public final class MappingDataLoader {
             return null;
         }
 
+        final long start = System.nanoTime();
         try (final InputStreamReader reader = new InputStreamReader(stream)) {
             return GsonUtil.getGson().fromJson(reader, JsonObject.class);
         } catch (final IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            fileRead(name, start);
         }
     }
 
@@ -137,19 +154,33 @@ public final class MappingDataLoader {
             return null;
         }
 
+        final long start = System.nanoTime();
         try (final InputStream stream = resource) {
             return NBTIO.readTag(stream);
         } catch (final IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            fileRead(name, start);
         }
     }
 
+    private static void fileRead(final String name, final long start) {
+        final LoadListener listener = loadListener;
+        if (listener != null) {
+            listener.fileRead(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Loads the mappings of the given key. Shift and change encoded mappings are kept as {@link ShiftMappings}
+     * if they consist of few enough runs, everything else is loaded into a dense array.
+     *
+     * @param mappingsTag mappings data
+     * @param key         key of the mappings
+     * @return loaded mappings, or null if not present
+     */
     public static @Nullable Mappings loadMappings(final CompoundTag mappingsTag, final String key) {
-        return loadMappings(mappingsTag, key, size -> {
-            final int[] array = new int[size];
-            Arrays.fill(array, -1);
-            return array;
-        }, (array, id, mappedId) -> array[id] = mappedId, IntArrayMappings::of);
+        return loadMappings(mappingsTag, key, ShiftMappings::builder, ShiftMappings.Builder::add, ShiftMappings.Builder::build);
     }
 
     @Beta
@@ -332,6 +363,35 @@ public final class MappingDataLoader {
         return MappingDataLoader.class.getClassLoader().getResourceAsStream("assets/viaversion/data/" + name);
     }
 
+    /**
+     * Listener notified on the loading thread about the time spent loading mapping data.
+     */
+    public interface LoadListener {
+
+        /**
+         * Called before the given mapping data starts loading.
+         *
+         * @param mappingData mapping data
+         */
+        void mappingDataLoading(MappingData mappingData);
+
+        /**
+         * Called after a mapping file has been read and decoded.
+         *
+         * @param name file name
+         * @param time read time in nanoseconds
+         */
+        void fileRead(String name, long time);
+
+        /**
+         * Called after the given mapping data has been loaded.
+         *
+         * @param mappingData mapping data
+         * @param time        load time in nanoseconds, including the files read while loading
+         */
+        void mappingDataLoaded(MappingData mappingData, long time);
+    }
+
     @FunctionalInterface
     public interface AddConsumer<T> {
 
@@ -0,0 +1,281 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.data;
+
+import java.util.Arrays;
+
+/**
+ * Mappings stored as runs of consecutive ids that are shifted by the same offset, instead of one entry per id.
+ * Lookups search the run starts, so this is only used if there are few runs compared to the number of ids.
+ * Runs of unchanged ids are simply runs with an offset of 0.
+ */
+public class ShiftMappings implements Mappings {
+    /**
+     * Offset of runs whose ids are unmapped.
+     */
+    private static final int UNMAPPED = Integer.MIN_VALUE;
+    /**
+     * Minimum average number of ids per run, below which a dense array is smaller and faster.
+     */
+    private static final int MIN_IDS_PER_RUN = 8;
+    /**
+     * Runs ordered by their first id, each packed as the first id in the upper and the offset in the lower 32 bits.
+     */
+    private long[] runs;
+    private final int size;
+    private final int mappedSize;
+
+    protected ShiftMappings(final long[] runs, final int size, final int mappedSize) {
+        this.runs = runs;
+        this.size = size;
+        this.mappedSize = mappedSize;
+    }
+
+    /**
+     * Returns a new builder to add mappings to in ascending order of their unmapped id.
+     *
+     * @param size number of unmapped ids
+     * @return new builder
+     */
+    public static Builder builder(final int size) {
+        return new Builder(size);
+    }
+
+    @Override
+    public int getNewId(final int id) {
+        if (id < 0 || id >= size) {
+            return -1;
+        }
+
+        final int offset = offset(runs[runIndex(runs, id)]);
+        return offset != UNMAPPED ? id + offset : -1;
+    }
+
+    /**
+     * Returns the index of the last run starting at or before the given id, the first run always starting at 0.
+     */
+    private static int runIndex(final long[] runs, final int id) {
+        // Halve the range without branching on the comparison, so that the JIT can use a conditional move
+        int index = 0;
+        int length = runs.length;
+        while (length > 1) {
+            final int half = length >>> 1;
+            index = start(runs[index + half]) <= id ? index + half : index;
+            length -= half;
+        }
+        return index;
+    }
+
+    private static long run(final int start, final int offset) {
+        return (long) start << 32 | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int start(final long run) {
+        return (int) (run >>> 32);
+    }
+
+    private static int offset(final long run) {
+        return (int) run;
+    }
+
+    private int end(final long[] runs, final int index) {
+        return index + 1 < runs.length ? start(runs[index + 1]) : size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every change copies the runs, so this is linear in their number and only meant for the few overrides
+     * applied after loading. Many changes should be collected in a {@link Builder} instead.
+     */
+    @Override
+    public void setNewId(final int id, final int mappedId) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id " + id + " out of bounds for size " + size);
+        }
+
+        final long[] runs = this.runs;
+        final int index = runIndex(runs, id);
+        final int runOffset = offset(runs[index]);
+        final int offset = mappedId != -1 ? mappedId - id : UNMAPPED;
+        if (runOffset == offset) {
+            return;
+        }
+
+        // Split the run into the part before the id, the id itself, and the part after it
+        final int start = start(runs[index]);
+        final int end = end(runs, index);
+        final long[] newRuns = new long[runs.length + 2];
+        System.arraycopy(runs, 0, newRuns, 0, index);
+        int newIndex = index;
+        if (start < id) {
+            newRuns[newIndex++] = runs[index];
+        }
+        newRuns[newIndex++] = run(id, offset);
+        if (id + 1 < end) {
+            newRuns[newIndex++] = run(id + 1, runOffset);
+        }
+        System.arraycopy(runs, index + 1, newRuns, newIndex, runs.length - index - 1);
+        newIndex += runs.length - index - 1;
+
+        // Swapped as a whole, so that concurrent lookups see either version
+        this.runs = newIndex == newRuns.length ? newRuns : Arrays.copyOf(newRuns, newIndex);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int mappedSize() {
+        return mappedSize;
+    }
+
+    @Override
+    public Mappings inverse() {
+        final int[] inverse = new int[mappedSize];
+        Arrays.fill(inverse, -1);
+        final long[] runs = this.runs;
+        for (int i = 0; i < runs.length; i++) {
+            final int offset = offset(runs[i]);
+            if (offset == UNMAPPED) {
+                continue;
+            }
+
+            final int end = end(runs, i);
+            for (int id = start(runs[i]); id < end; id++) {
+                final int mappedId = id + offset;
+                if (mappedId >= 0 && mappedId < mappedSize && inverse[mappedId] == -1) {
+                    inverse[mappedId] = id;
+                }
+            }
+        }
+        return IntArrayMappings.of(inverse, size);
+    }
+
+    /**
+     * Returns the number of runs the mappings are stored as.
+     *
+     * @return number of runs
+     */
+    public int runs() {
+        return runs.length;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the run arrays.
+     *
+     * @return approximate memory usage in bytes
+     */
+    public long memoryUsage() {
+        return (long) runs.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the mappings as a dense array, with -1 for unmapped ids.
+     *
+     * @return new array of the mapped ids
+     */
+    public int[] toArray() {
+        final long[] runs = this.runs;
+        final int[] array = new int[size];
+        for (int i = 0; i < runs.length; i++) {
+            final int offset = offset(runs[i]);
+            final int end = end(runs, i);
+            for (int id = start(runs[i]); id < end; id++) {
+                array[id] = offset != UNMAPPED ? id + offset : -1;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Collects mappings added in ascending order of their unmapped id into runs.
+     * Ids that are skipped or mapped to -1 are unmapped.
+     */
+    public static final class Builder {
+        private final int size;
+        private long[] runs = new long[16];
+        private int runCount;
+        private int nextId;
+
+        private Builder(final int size) {
+            this.size = size;
+        }
+
+        /**
+         * Adds a mapping, which has to be for an id greater than that of the previously added one.
+         *
+         * @param id       unmapped id
+         * @param mappedId mapped id, or -1 if unmapped
+         */
+        public void add(final int id, final int mappedId) {
+            if (id < nextId || id >= size) {
+                throw new IllegalArgumentException("Id " + id + " has to be between " + nextId + " and " + size);
+            }
+
+            if (id != nextId) {
+                addRun(nextId, UNMAPPED);
+            }
+            addRun(id, mappedId != -1 ? mappedId - id : UNMAPPED);
+            nextId = id + 1;
+        }
+
+        private void addRun(final int start, final int offset) {
+            // Continue the previous run if it shifts by the same offset
+            if (runCount != 0 && offset(runs[runCount - 1]) == offset) {
+                return;
+            }
+
+            if (runCount == runs.length) {
+                runs = Arrays.copyOf(runs, runCount * 2);
+            }
+            runs[runCount++] = run(start, offset);
+        }
+
+        /**
+         * Returns shift mappings if there are few enough runs, else dense array mappings.
+         *
+         * @param mappedSize number of mapped ids
+         * @return mappings of the added ids
+         */
+        public Mappings build(final int mappedSize) {
+            if (nextId < size) {
+                addRun(nextId, UNMAPPED);
+                nextId = size;
+            }
+
+            if (runCount == 0) {
+                // No ids at all
+                return IntArrayMappings.of(new int[0], mappedSize);
+            }
+
+            final ShiftMappings mappings = new ShiftMappings(Arrays.copyOf(runs, runCount), size, mappedSize);
+            if (mappings.runs() > Math.max(size / MIN_IDS_PER_RUN, 1)) {
+                return IntArrayMappings.of(mappings.toArray(), mappedSize);
+            }
+            return mappings;
+        }
+    }
+}
@@ -31,7 +31,7 @@ public class ChunkSectionLightImpl implements ChunkSectionLight {
     private NibbleArray skyLight;
 
     public ChunkSectionLightImpl() {
-        // Block light is always written
+        // Block light is always written, the array is only allocated once it's non-uniform
         this.blockLight = new NibbleArray(ChunkSection.SIZE);
     }
 
@@ -85,7 +85,7 @@ public class ChunkSectionLightImpl implements ChunkSectionLight {
         if (this.blockLight == null) {
             this.blockLight = new NibbleArray(LIGHT_LENGTH * 2);
         }
-        input.readBytes(this.blockLight.getHandle());
+        this.blockLight.read(input);
     }
 
     @Override
@@ -93,17 +93,17 @@ public class ChunkSectionLightImpl implements ChunkSectionLight {
         if (this.skyLight == null) {
             this.skyLight = new NibbleArray(LIGHT_LENGTH * 2);
         }
-        input.readBytes(this.skyLight.getHandle());
+        this.skyLight.read(input);
     }
 
     @Override
     public void writeBlockLight(ByteBuf output) {
-        output.writeBytes(blockLight.getHandle());
+        blockLight.write(output);
     }
 
     @Override
     public void writeSkyLight(ByteBuf output) {
-        output.writeBytes(skyLight.getHandle());
+        skyLight.write(output);
     }
 
     @Override
@@ -22,10 +22,12 @@
  */
 package com.viaversion.viaversion.api.minecraft.chunks;
 
+import com.viaversion.viaversion.util.CompactArrayUtil;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class DataPaletteImpl implements DataPalette {
 
@@ -135,9 +137,36 @@ public final class DataPaletteImpl implements DataPalette {
         inversePalette.clear();
     }
 
+    /**
+     * Sets the palette indices from a compact array with padding. The array is kept as is and
+     * only unpacked once a palette index is changed, so it can be written again if just the palette changes.
+     *
+     * @param bitsPerValue bits per palette index
+     * @param data         compact array of palette indices, not copied
+     */
+    public void setPackedPaletteIndices(final int bitsPerValue, final long[] data) {
+        values = new PackedChunkData(values.size(), bitsPerValue, data);
+    }
+
+    /**
+     * Returns the compact array with padding set in {@link #setPackedPaletteIndices(int, long[])} if the palette indices
+     * have not been changed since and use the given bits per value.
+     *
+     * @param bitsPerValue bits per palette index
+     * @return the packed palette indices if unchanged, else null
+     */
+    public long @Nullable [] packedPaletteIndices(final int bitsPerValue) {
+        if (values instanceof PackedChunkData) {
+            final PackedChunkData packedData = (PackedChunkData) values;
+            return packedData.bitsPerValue == bitsPerValue ? packedData.data : null;
+        }
+        return null;
+    }
+
     interface ChunkData {
         int get(int idx);
         void set(int idx, int val);
+        int size();
     }
 
     private class EmptyChunkData implements ChunkData {
@@ -160,6 +189,11 @@ public final class DataPaletteImpl implements DataPalette {
                 values.set(idx, val);
             }
         }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 
     private class ByteChunkData implements ChunkData {
@@ -169,6 +203,13 @@ public final class DataPaletteImpl implements DataPalette {
             this.data = new byte[size];
         }
 
+        public ByteChunkData(int[] values) {
+            this.data = new byte[values.length];
+            for (int i = 0; i < values.length; i++) {
+                this.data[i] = (byte) values[i];
+            }
+        }
+
         @Override
         public int get(int idx) {
             return data[idx] & 0xFF;
@@ -184,11 +225,23 @@ public final class DataPaletteImpl implements DataPalette {
             }
             data[idx] = (byte) val;
         }
+
+        @Override
+        public int size() {
+            return data.length;
+        }
     }
 
     private static class ShortChunkData implements ChunkData {
         private final short[] data;
 
+        public ShortChunkData(int[] values) {
+            this.data = new short[values.length];
+            for (int i = 0; i < values.length; i++) {
+                this.data[i] = (short) values[i];
+            }
+        }
+
         public ShortChunkData(byte[] data) {
             this.data = new short[data.length];
             for (int i = 0; i < data.length; i++) {
@@ -205,6 +258,51 @@ public final class DataPaletteImpl implements DataPalette {
         public void set(int idx, int val) {
             data[idx] = (short) val;
         }
+
+        @Override
+        public int size() {
+            return data.length;
+        }
     }
 
+    private class PackedChunkData implements ChunkData {
+        private final int size;
+        private final int bitsPerValue;
+        private final int valuesPerLong;
+        private final long mask;
+        private final long[] data;
+
+        public PackedChunkData(int size, int bitsPerValue, long[] data) {
+            this.size = size;
+            this.bitsPerValue = bitsPerValue;
+            this.valuesPerLong = 64 / bitsPerValue;
+            this.mask = (1L << bitsPerValue) - 1;
+            this.data = data;
+        }
+
+        @Override
+        public int get(int idx) {
+            final int cellIndex = idx / valuesPerLong;
+            final int bitIndex = (idx - cellIndex * valuesPerLong) * bitsPerValue;
+            return (int) (data[cellIndex] >> bitIndex & mask);
+        }
+
+        @Override
+        public void set(int idx, int val) {
+            if (get(idx) == val) {
+                return;
+            }
+
+            // Unpack into a plain array on the first change
+            final int[] indices = new int[size];
+            CompactArrayUtil.unpackCompactArrayWithPadding(bitsPerValue, size, data, indices);
+            values = bitsPerValue <= Byte.SIZE ? new ByteChunkData(indices) : new ShortChunkData(indices);
+            values.set(idx, val);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
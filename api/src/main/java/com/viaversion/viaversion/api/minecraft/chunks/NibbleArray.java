@@ -22,17 +22,34 @@
  */
 package com.viaversion.viaversion.api.minecraft.chunks;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ByteProcessor;
 import java.util.Arrays;
 
+/**
+ * Nibble array that is stored as a single value for as long as all of its entries are the same.
+ */
 public class NibbleArray {
-    private final byte[] handle;
+    private static final ByteBuf[] UNIFORM_BUFFERS = new ByteBuf[16];
+    private final int length;
+    private byte[] handle; // Null while uniform
+    private byte uniformValue;
+
+    static {
+        for (int value = 0; value < 16; value++) {
+            final byte[] handle = new byte[ChunkSectionLight.LIGHT_LENGTH];
+            Arrays.fill(handle, (byte) ((value << 4) | value));
+            UNIFORM_BUFFERS[value] = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(handle).asReadOnly());
+        }
+    }
 
     public NibbleArray(int length) {
         if (length == 0 || length % 2 != 0) {
             throw new IllegalArgumentException("Length of nibble array must be a positive number dividable by 2!");
         }
 
-        this.handle = new byte[length / 2];
+        this.length = length / 2;
     }
 
     public NibbleArray(byte[] handle) {
@@ -40,6 +57,7 @@ public class NibbleArray {
             throw new IllegalArgumentException("Length of nibble array must be a positive number dividable by 2!");
         }
 
+        this.length = handle.length;
         this.handle = handle;
     }
 
@@ -62,6 +80,10 @@ public class NibbleArray {
      * @return The value at that index.
      */
     public byte get(int index) {
+        if (handle == null) {
+            return uniformValue;
+        }
+
         byte value = handle[index / 2];
         if (index % 2 == 0) {
             return (byte) (value & 0xF);
@@ -89,6 +111,13 @@ public class NibbleArray {
      * @param value The desired value
      */
     public void set(int index, int value) {
+        if (handle == null) {
+            if ((value & 0xF) == uniformValue) {
+                return;
+            }
+            materialize();
+        }
+
         if (index % 2 == 0) {
             index /= 2;
             handle[index] = (byte) ((handle[index] & 0xF0) | (value & 0xF));
@@ -104,7 +133,7 @@ public class NibbleArray {
      * @return The size as an int of the nibble
      */
     public int size() {
-        return handle.length * 2;
+        return length * 2;
     }
 
     /**
@@ -113,25 +142,38 @@ public class NibbleArray {
      * @return The number of bytes based on the handle.
      */
     public int actualSize() {
-        return handle.length;
+        return length;
     }
 
     /**
-     * Fill the array with a value
+     * Fill the array with a value, dropping the backing byte array.
      *
      * @param value Value to fill with
      */
     public void fill(byte value) {
         value &= 0xF; // Max nibble size (= 16)
-        Arrays.fill(handle, (byte) ((value << 4) | value));
+        this.handle = null;
+        this.uniformValue = value;
     }
 
     /**
-     * Get the byte array behind this nibble
+     * Returns whether the array is stored as a single value.
+     *
+     * @return true if the array is stored as a single value
+     */
+    public boolean isUniform() {
+        return handle == null;
+    }
+
+    /**
+     * Get the byte array behind this nibble, allocating it if the array is uniform.
      *
      * @return The byte array
      */
     public byte[] getHandle() {
+        if (handle == null) {
+            materialize();
+        }
         return handle;
     }
 
@@ -141,10 +183,76 @@ public class NibbleArray {
      * @param handle The byte array to copy in.
      */
     public void setHandle(byte[] handle) {
-        if (handle.length != this.handle.length) {
+        if (handle.length != this.length) {
             throw new IllegalArgumentException("Length of handle must equal to size of nibble array!");
         }
 
+        if (this.handle == null) {
+            final int uniformValue = uniformValue(handle);
+            if (uniformValue != -1) {
+                this.uniformValue = (byte) uniformValue;
+                return;
+            }
+            this.handle = new byte[length];
+        }
         System.arraycopy(handle, 0, this.handle, 0, handle.length);
     }
+
+    /**
+     * Reads the array from a buffer, keeping it as a single value if all entries are the same.
+     *
+     * @param input buffer to read from
+     */
+    public void read(ByteBuf input) {
+        final byte first = input.getByte(input.readerIndex());
+        if (((first >> 4) & 0xF) == (first & 0xF)
+                && input.forEachByte(input.readerIndex(), length, new ByteProcessor.IndexNotOfProcessor(first)) == -1) {
+            input.skipBytes(length);
+            this.handle = null;
+            this.uniformValue = (byte) (first & 0xF);
+            return;
+        }
+
+        input.readBytes(getHandle());
+    }
+
+    /**
+     * Writes the array to a buffer, copying uniform arrays from a shared buffer.
+     *
+     * @param output buffer to write to
+     */
+    public void write(ByteBuf output) {
+        if (handle != null) {
+            output.writeBytes(handle);
+            return;
+        }
+
+        final ByteBuf uniformBuffer = UNIFORM_BUFFERS[uniformValue];
+        for (int remaining = length; remaining > 0; ) {
+            final int bytes = Math.min(remaining, uniformBuffer.capacity());
+            output.writeBytes(uniformBuffer, 0, bytes);
+            remaining -= bytes;
+        }
+    }
+
+    private void materialize() {
+        this.handle = new byte[length];
+        if (uniformValue != 0) {
+            Arrays.fill(handle, (byte) ((uniformValue << 4) | uniformValue));
+        }
+    }
+
+    private static int uniformValue(byte[] data) {
+        final byte first = data[0];
+        if (((first >> 4) & 0xF) != (first & 0xF)) {
+            return -1;
+        }
+
+        for (int i = 1; i < data.length; i++) {
+            if (data[i] != first) {
+                return -1;
+            }
+        }
+        return first & 0xF;
+    }
 }
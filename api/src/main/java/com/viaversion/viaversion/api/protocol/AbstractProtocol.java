@@ -41,11 +41,17 @@ import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
 import com.viaversion.viaversion.api.rewriter.Rewriter;
 import com.viaversion.viaversion.exception.CancelException;
 import com.viaversion.viaversion.exception.InformativeException;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -68,6 +74,9 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
     protected final PacketMappings clientboundMappings;
     protected final PacketMappings serverboundMappings;
     private final Map<Class<?>, Object> storedObjects = new HashMap<>();
+    private final Map<State, Int2ObjectMap<Function<UserConnection, @Nullable Object>>> clientboundCacheStates = new EnumMap<>(State.class);
+    private final Map<State, IntSet> clientboundFusablePackets = new EnumMap<>(State.class);
+    private final boolean customTransform;
     private boolean initialized;
 
     @Deprecated
@@ -88,6 +97,15 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
         this.packetTypesProvider = createPacketTypesProvider();
         this.clientboundMappings = createClientboundPacketMappings();
         this.serverboundMappings = createServerboundPacketMappings();
+        this.customTransform = overridesTransform();
+    }
+
+    private boolean overridesTransform() {
+        try {
+            return getClass().getMethod("transform", Direction.class, State.class, PacketWrapper.class).getDeclaringClass() != AbstractProtocol.class;
+        } catch (final NoSuchMethodException e) {
+            return true;
+        }
     }
 
     @Override
@@ -286,6 +304,7 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
                     " If override is intentional, set override to true. Stacktrace: ", new Exception());
         }
         clientboundMappings.addMapping(state, unmappedPacketId, packetMapping);
+        unmarkClientbound(state, unmappedPacketId);
     }
 
     @Override
@@ -305,6 +324,7 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
     @Override
     public void registerClientbound(CU packetType, @Nullable CM mappedPacketType, @Nullable PacketHandler handler, boolean override) {
         register(clientboundMappings, packetType, mappedPacketType, unmappedClientboundPacketType, mappedClientboundPacketType, handler, override);
+        unmarkClientbound(packetType.state(), packetType.getId());
     }
 
     @Override
@@ -312,6 +332,35 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
         registerClientbound(packetType, null, PacketWrapper::cancel);
     }
 
+    @Override
+    public void registerCacheableClientbound(CU packetType, Function<UserConnection, @Nullable Object> cacheStateFunction) {
+        checkPacketType(packetType, unmappedClientboundPacketType == null || unmappedClientboundPacketType.isInstance(packetType));
+        Preconditions.checkArgument(clientboundMappings.hasMapping(packetType), "Packet %s has to be registered before being marked as cacheable", packetType);
+        clientboundCacheStates.computeIfAbsent(packetType.state(), state -> new Int2ObjectOpenHashMap<>()).put(packetType.getId(), cacheStateFunction);
+    }
+
+    @Override
+    public void registerFusableClientbound(CU packetType) {
+        checkPacketType(packetType, unmappedClientboundPacketType == null || unmappedClientboundPacketType.isInstance(packetType));
+        Preconditions.checkArgument(clientboundMappings.hasMapping(packetType), "Packet %s has to be registered before being marked as fusable", packetType);
+        clientboundFusablePackets.computeIfAbsent(packetType.state(), state -> new IntOpenHashSet()).add(packetType.getId());
+    }
+
+    /**
+     * Removes the cacheable and fusable marks of a clientbound packet, as they only apply to the handler they were registered for.
+     */
+    private void unmarkClientbound(State state, int unmappedPacketId) {
+        Int2ObjectMap<Function<UserConnection, @Nullable Object>> cacheStates = clientboundCacheStates.get(state);
+        if (cacheStates != null) {
+            cacheStates.remove(unmappedPacketId);
+        }
+
+        IntSet fusablePackets = clientboundFusablePackets.get(state);
+        if (fusablePackets != null) {
+            fusablePackets.remove(unmappedPacketId);
+        }
+    }
+
     @Override
     public void registerServerbound(SU packetType, @Nullable PacketHandler handler) {
         PacketTypeMap<SM> mappedPacketTypes = packetTypesProvider.mappedServerboundPacketTypes().get(packetType.state());
@@ -412,6 +461,76 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
         }
     }
 
+    @Override
+    public int passthroughPacketId(Direction direction, State state, int unmappedId) {
+        // Overridden transform methods may do anything with the packet
+        return customTransform ? -1 : mappedPassthroughPacketId(direction, state, unmappedId);
+    }
+
+    /**
+     * Returns the mapped id of the given packet if its registered mapping does not have a handler, else -1.
+     * Unlike {@link #passthroughPacketId(Direction, State, int)}, this does not take an overridden transform method into account.
+     *
+     * @param direction  direction of the packet
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return mapped packet id if the packet content is not touched, else -1
+     */
+    protected final int mappedPassthroughPacketId(Direction direction, State state, int unmappedId) {
+        PacketMappings mappings = direction == Direction.CLIENTBOUND ? clientboundMappings : serverboundMappings;
+        PacketMapping packetMapping = mappings.mappedPacket(state, unmappedId);
+        if (packetMapping == null) {
+            return unmappedId;
+        }
+        return packetMapping.handler() == null ? packetMapping.mappedPacketId(unmappedId) : -1;
+    }
+
+    @Override
+    public int cacheablePacketId(Direction direction, State state, int unmappedId) {
+        if (cacheStateFunction(direction, state, unmappedId) == null) {
+            return passthroughPacketId(direction, state, unmappedId);
+        }
+
+        PacketMapping packetMapping = clientboundMappings.mappedPacket(state, unmappedId);
+        return packetMapping != null ? packetMapping.mappedPacketId(unmappedId) : unmappedId;
+    }
+
+    @Override
+    public @Nullable Object packetCacheState(UserConnection connection, Direction direction, State state, int unmappedId) {
+        Function<UserConnection, @Nullable Object> cacheStateFunction = cacheStateFunction(direction, state, unmappedId);
+        return cacheStateFunction != null ? cacheStateFunction.apply(connection) : null;
+    }
+
+    @Override
+    public int fusablePacketId(Direction direction, State state, int unmappedId) {
+        if (direction != Direction.CLIENTBOUND || customTransform) {
+            return -1;
+        }
+
+        IntSet fusablePackets = clientboundFusablePackets.get(state);
+        if (fusablePackets == null || !fusablePackets.contains(unmappedId)) {
+            return -1;
+        }
+
+        PacketMapping packetMapping = clientboundMappings.mappedPacket(state, unmappedId);
+        return packetMapping != null ? packetMapping.mappedPacketId(unmappedId) : unmappedId;
+    }
+
+    @Override
+    public IntSet fusablePacketIds(State state) {
+        IntSet fusablePackets = clientboundFusablePackets.get(state);
+        return fusablePackets != null && !customTransform ? IntSets.unmodifiable(fusablePackets) : IntSets.EMPTY_SET;
+    }
+
+    private @Nullable Function<UserConnection, @Nullable Object> cacheStateFunction(Direction direction, State state, int unmappedId) {
+        if (direction != Direction.CLIENTBOUND) {
+            return null;
+        }
+
+        Int2ObjectMap<Function<UserConnection, @Nullable Object>> cacheStates = clientboundCacheStates.get(state);
+        return cacheStates != null ? cacheStates.get(unmappedId) : null;
+    }
+
     protected void throwRemapError(Direction direction, State state, int unmappedPacketId, int mappedPacketId, InformativeException e) throws InformativeException {
         // Don't print errors during handshake/login/status
         if (state != State.PLAY && direction == Direction.SERVERBOUND && !Via.getManager().debugHandler().enabled()) {
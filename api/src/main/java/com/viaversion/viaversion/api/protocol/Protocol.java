@@ -37,6 +37,9 @@ import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
 import com.viaversion.viaversion.api.protocol.remapper.PacketRemapper;
 import com.viaversion.viaversion.api.rewriter.EntityRewriter;
 import com.viaversion.viaversion.api.rewriter.ItemRewriter;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import java.util.function.Function;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -154,6 +157,33 @@ public interface Protocol<CU extends ClientboundPacketType, CM extends Clientbou
      */
     void cancelClientbound(CU packetType);
 
+    /**
+     * Marks the registered transformation of the given clientbound packet as only depending on the packet contents
+     * and the state returned by the given function, so that its result may be shared between connections.
+     * <p>
+     * The packet handler must neither modify connection state nor send other packets.
+     * Does nothing by default, leaving the packet uncached.
+     *
+     * @param packetType         clientbound packet type the server sends
+     * @param cacheStateFunction function returning the connection state the transformation depends on,
+     *                           or null if it currently cannot be cached for the connection
+     */
+    default void registerCacheableClientbound(CU packetType, Function<UserConnection, @Nullable Object> cacheStateFunction) {
+    }
+
+    /**
+     * Marks the registered transformation of the given clientbound packet as only using block state ids to remap them
+     * with {@link MappingData#getNewBlockStateId(int)}. If neighbouring protocols in a pipeline do the same,
+     * the first of them may remap the ids with fused mappings of all of them, with the others skipping their remapping.
+     * <p>
+     * The packet handler must neither cancel the packet nor send it on its own.
+     * Does nothing by default, leaving the packet to remap its block states on its own.
+     *
+     * @param packetType clientbound packet type the server sends
+     */
+    default void registerFusableClientbound(CU packetType) {
+    }
+
     /**
      * Maps a packet type to another packet type without a packet handler.
      * Note that this should not be called for simple channel mappings of the same packet; this is already done automatically.
@@ -249,6 +279,93 @@ public interface Protocol<CU extends ClientboundPacketType, CM extends Clientbou
      */
     void transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception;
 
+    /**
+     * Returns the packet id the given packet is mapped to if this protocol does nothing but change its id,
+     * or -1 if it has to go through {@link #transform(Direction, State, PacketWrapper)}.
+     * <p>
+     * The result may only depend on the registered packet mappings, as it is cached and shared between connections.
+     * Connection specific conditions have to be checked in {@link #allowsPassthrough(UserConnection, Direction)}.
+     *
+     * @param direction  direction of the packet
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return mapped packet id if the packet content is not touched, else -1
+     */
+    default int passthroughPacketId(Direction direction, State state, int unmappedId) {
+        return -1;
+    }
+
+    /**
+     * Returns whether packets permitted by {@link #passthroughPacketId(Direction, State, int)} may currently
+     * skip {@link #transform(Direction, State, PacketWrapper)} for the given connection.
+     * <p>
+     * To be overridden if the protocol's transformation depends on connection state.
+     *
+     * @param connection user connection
+     * @param direction  direction of the packet
+     * @return whether packets may skip the full transformation
+     */
+    default boolean allowsPassthrough(UserConnection connection, Direction direction) {
+        return true;
+    }
+
+    /**
+     * Returns the packet id the given packet is mapped to if its transformation only depends on the packet contents
+     * and {@link #packetCacheState(UserConnection, Direction, State, int)}, or -1 if its result must not be shared
+     * between connections. Packets permitted by {@link #passthroughPacketId(Direction, State, int)} are cacheable as well.
+     * <p>
+     * Like the passthrough id, the result may only depend on the registered packet mappings.
+     *
+     * @param direction  direction of the packet
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return mapped packet id if the transformation result may be shared, else -1
+     */
+    default int cacheablePacketId(Direction direction, State state, int unmappedId) {
+        return passthroughPacketId(direction, state, unmappedId);
+    }
+
+    /**
+     * Returns the connection state the transformation of a packet permitted by
+     * {@link #cacheablePacketId(Direction, State, int)} depends on, or null if it currently cannot be cached for the connection.
+     * The returned object is used as part of a cache key and has to implement equals and hashCode.
+     *
+     * @param connection user connection
+     * @param direction  direction of the packet
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return connection state the transformation depends on, or null if it cannot be cached
+     */
+    default @Nullable Object packetCacheState(UserConnection connection, Direction direction, State state, int unmappedId) {
+        return null;
+    }
+
+    /**
+     * Returns the packet id the given packet is mapped to if its block state remapping may be fused with that of
+     * neighbouring protocols, as registered with {@link #registerFusableClientbound(ClientboundPacketType)}, else -1.
+     * <p>
+     * Like the passthrough id, the result may only depend on the registered packet mappings.
+     *
+     * @param direction  direction of the packet
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return mapped packet id if the block state remapping may be fused, else -1
+     */
+    default int fusablePacketId(Direction direction, State state, int unmappedId) {
+        return -1;
+    }
+
+    /**
+     * Returns the unmapped ids of the clientbound packets registered with {@link #registerFusableClientbound(ClientboundPacketType)}
+     * for the given state, to only check those with {@link #fusablePacketId(Direction, State, int)}.
+     *
+     * @param state protocol state
+     * @return unmodifiable set of unmapped packet ids that may be fusable
+     */
+    default IntSet fusablePacketIds(State state) {
+        return IntSets.EMPTY_SET;
+    }
+
     /**
      * Returns a packet type provider for this protocol to get packet types by id.
      * Depending on the Protocol, not every state may be populated.
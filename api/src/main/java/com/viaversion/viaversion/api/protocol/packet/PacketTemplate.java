@@ -0,0 +1,143 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.protocol.packet;
+
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Packet whose invariant contents are serialized once into a shared read-only buffer.
+ * <p>
+ * The contents are written on first use, so templates may depend on data loaded after their creation.
+ * Packets created from a template still pass through the remaining protocols of a pipeline.
+ */
+public final class PacketTemplate {
+    private final PacketType packetType;
+    private final Writer writer;
+    private volatile ByteBuf buffer;
+
+    private PacketTemplate(final PacketType packetType, final Writer writer) {
+        this.packetType = packetType;
+        this.writer = writer;
+    }
+
+    /**
+     * Creates a new packet template.
+     *
+     * @param packetType packet type
+     * @param writer     writer of the invariant packet contents, called once on first use
+     * @return new packet template
+     */
+    public static PacketTemplate of(final PacketType packetType, final Writer writer) {
+        return new PacketTemplate(packetType, writer);
+    }
+
+    /**
+     * Sends the packet with the given variable fields written in front of the template contents.
+     *
+     * @param connection   user connection
+     * @param protocol     protocol class to send the packet from
+     * @param prefixWriter writer of the variable fields preceding the template contents
+     * @throws Exception if the packet could not be written or sent
+     */
+    public void send(final UserConnection connection, final Class<? extends Protocol> protocol, final Writer prefixWriter) throws Exception {
+        send(connection, protocol, prefixWriter, true);
+    }
+
+    /**
+     * Transforms the packet on the current thread and schedules it to be sent on the event loop.
+     *
+     * @param connection user connection
+     * @param protocol   protocol class to send the packet from
+     * @throws Exception if the packet could not be written or sent
+     */
+    public void scheduleSend(final UserConnection connection, final Class<? extends Protocol> protocol) throws Exception {
+        send(connection, protocol, null, false);
+    }
+
+    private void send(final UserConnection connection, final Class<? extends Protocol> protocol,
+                      final @Nullable Writer prefixWriter, final boolean currentThread) throws Exception {
+        // Copied into a buffer of the channel's allocator, so that buffers derived from it are pooled as well
+        final ByteBuf template = buffer();
+        final ByteBuf input = connection.getChannel().alloc().buffer(template.readableBytes() + (prefixWriter != null ? 16 : 0));
+        try {
+            if (prefixWriter != null) {
+                prefixWriter.write(input);
+            }
+            input.writeBytes(template, template.readerIndex(), template.readableBytes());
+
+            final PacketWrapper wrapper = PacketWrapper.create(packetType, input, connection);
+            if (currentThread) {
+                wrapper.send(protocol);
+            } else {
+                wrapper.scheduleSend(protocol);
+            }
+        } finally {
+            input.release();
+        }
+    }
+
+    /**
+     * Returns the shared read-only buffer holding the template contents.
+     *
+     * @return shared read-only buffer
+     * @throws Exception if the template could not be written
+     */
+    public ByteBuf buffer() throws Exception {
+        ByteBuf buffer = this.buffer;
+        if (buffer == null) {
+            synchronized (this) {
+                buffer = this.buffer;
+                if (buffer == null) {
+                    this.buffer = buffer = write();
+                }
+            }
+        }
+        return buffer;
+    }
+
+    private ByteBuf write() throws Exception {
+        final ByteBuf contents = Unpooled.buffer();
+        try {
+            writer.write(contents);
+            final ByteBuf direct = Unpooled.directBuffer(contents.readableBytes());
+            direct.writeBytes(contents);
+            return Unpooled.unreleasableBuffer(direct.asReadOnly());
+        } finally {
+            contents.release();
+        }
+    }
+
+    public PacketType packetType() {
+        return packetType;
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+
+        void write(ByteBuf buffer) throws Exception;
+    }
+}
@@ -30,6 +30,7 @@ public class PacketTracker {
     private final UserConnection connection;
     private long sentPackets;
     private long receivedPackets;
+    private long savedFlushes;
     // Used for tracking pps
     private long startTime;
     private long intervalPackets;
@@ -70,6 +71,15 @@ public class PacketTracker {
         return false;
     }
 
+    /**
+     * Used for counting the flushes saved by writing additionally sent packets together.
+     *
+     * @param savedFlushes number of flushes saved
+     */
+    public void incrementSavedFlushes(int savedFlushes) {
+        this.savedFlushes += savedFlushes;
+    }
+
     /**
      * Checks for packet flood with the packets sent in the last second.
      * ALWAYS check for {@link #incrementReceived()} before using this method.
@@ -123,6 +133,10 @@ public class PacketTracker {
         this.receivedPackets = receivedPackets;
     }
 
+    public long getSavedFlushes() {
+        return savedFlushes;
+    }
+
     public long getStartTime() {
         return startTime;
     }
@@ -150,6 +150,412 @@ public interface PacketWrapper {
      */
     void passthroughAll() throws Exception;
 
+    /**
+     * Primitive variant of {@link #get(Type, int)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @return the requested value
+     * @throws InformativeException if it fails to find it
+     */
+    default int getInt(Type<Integer> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Primitive variant of {@link #set(Type, int, Object)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @param value value to set the part to
+     * @throws InformativeException if it fails to set it
+     */
+    default void setInt(Type<Integer> type, int index, int value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Primitive variant of {@link #read(Type)}.
+     *
+     * @param type type to read
+     * @return the read value
+     * @throws InformativeException if it fails to read
+     */
+    default int readInt(Type<Integer> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Primitive variant of {@link #write(Type, Object)}.
+     *
+     * @param type  type to write
+     * @param value value to write
+     */
+    default void writeInt(Type<Integer> type, int value) {
+        write(type, value);
+    }
+
+    /**
+     * Primitive variant of {@link #passthrough(Type)}.
+     *
+     * @param type type to read and write
+     * @return the read and written value
+     * @throws Exception if it fails to read or write
+     */
+    default int passthroughInt(Type<Integer> type) throws Exception {
+        final int value = readInt(type);
+        writeInt(type, value);
+        return value;
+    }
+
+    /**
+     * Primitive variant of {@link #get(Type, int)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @return the requested value
+     * @throws InformativeException if it fails to find it
+     */
+    default long getLong(Type<Long> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Primitive variant of {@link #set(Type, int, Object)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @param value value to set the part to
+     * @throws InformativeException if it fails to set it
+     */
+    default void setLong(Type<Long> type, int index, long value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Primitive variant of {@link #read(Type)}.
+     *
+     * @param type type to read
+     * @return the read value
+     * @throws InformativeException if it fails to read
+     */
+    default long readLong(Type<Long> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Primitive variant of {@link #write(Type, Object)}.
+     *
+     * @param type  type to write
+     * @param value value to write
+     */
+    default void writeLong(Type<Long> type, long value) {
+        write(type, value);
+    }
+
+    /**
+     * Primitive variant of {@link #passthrough(Type)}.
+     *
+     * @param type type to read and write
+     * @return the read and written value
+     * @throws Exception if it fails to read or write
+     */
+    default long passthroughLong(Type<Long> type) throws Exception {
+        final long value = readLong(type);
+        writeLong(type, value);
+        return value;
+    }
+
+    /**
+     * Primitive variant of {@link #get(Type, int)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @return the requested value
+     * @throws InformativeException if it fails to find it
+     */
+    default short getShort(Type<Short> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Primitive variant of {@link #set(Type, int, Object)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @param value value to set the part to
+     * @throws InformativeException if it fails to set it
+     */
+    default void setShort(Type<Short> type, int index, short value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Primitive variant of {@link #read(Type)}.
+     *
+     * @param type type to read
+     * @return the read value
+     * @throws InformativeException if it fails to read
+     */
+    default short readShort(Type<Short> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Primitive variant of {@link #write(Type, Object)}.
+     *
+     * @param type  type to write
+     * @param value value to write
+     */
+    default void writeShort(Type<Short> type, short value) {
+        write(type, value);
+    }
+
+    /**
+     * Primitive variant of {@link #passthrough(Type)}.
+     *
+     * @param type type to read and write
+     * @return the read and written value
+     * @throws Exception if it fails to read or write
+     */
+    default short passthroughShort(Type<Short> type) throws Exception {
+        final short value = readShort(type);
+        writeShort(type, value);
+        return value;
+    }
+
+    /**
+     * Primitive variant of {@link #get(Type, int)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @return the requested value
+     * @throws InformativeException if it fails to find it
+     */
+    default byte getByte(Type<Byte> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Primitive variant of {@link #set(Type, int, Object)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @param value value to set the part to
+     * @throws InformativeException if it fails to set it
+     */
+    default void setByte(Type<Byte> type, int index, byte value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Primitive variant of {@link #read(Type)}.
+     *
+     * @param type type to read
+     * @return the read value
+     * @throws InformativeException if it fails to read
+     */
+    default byte readByte(Type<Byte> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Primitive variant of {@link #write(Type, Object)}.
+     *
+     * @param type  type to write
+     * @param value value to write
+     */
+    default void writeByte(Type<Byte> type, byte value) {
+        write(type, value);
+    }
+
+    /**
+     * Primitive variant of {@link #passthrough(Type)}.
+     *
+     * @param type type to read and write
+     * @return the read and written value
+     * @throws Exception if it fails to read or write
+     */
+    default byte passthroughByte(Type<Byte> type) throws Exception {
+        final byte value = readByte(type);
+        writeByte(type, value);
+        return value;
+    }
+
+    /**
+     * Primitive variant of {@link #get(Type, int)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @return the requested value
+     * @throws InformativeException if it fails to find it
+     */
+    default float getFloat(Type<Float> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Primitive variant of {@link #set(Type, int, Object)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @param value value to set the part to
+     * @throws InformativeException if it fails to set it
+     */
+    default void setFloat(Type<Float> type, int index, float value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Primitive variant of {@link #read(Type)}.
+     *
+     * @param type type to read
+     * @return the read value
+     * @throws InformativeException if it fails to read
+     */
+    default float readFloat(Type<Float> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Primitive variant of {@link #write(Type, Object)}.
+     *
+     * @param type  type to write
+     * @param value value to write
+     */
+    default void writeFloat(Type<Float> type, float value) {
+        write(type, value);
+    }
+
+    /**
+     * Primitive variant of {@link #passthrough(Type)}.
+     *
+     * @param type type to read and write
+     * @return the read and written value
+     * @throws Exception if it fails to read or write
+     */
+    default float passthroughFloat(Type<Float> type) throws Exception {
+        final float value = readFloat(type);
+        writeFloat(type, value);
+        return value;
+    }
+
+    /**
+     * Primitive variant of {@link #get(Type, int)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @return the requested value
+     * @throws InformativeException if it fails to find it
+     */
+    default double getDouble(Type<Double> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Primitive variant of {@link #set(Type, int, Object)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @param value value to set the part to
+     * @throws InformativeException if it fails to set it
+     */
+    default void setDouble(Type<Double> type, int index, double value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Primitive variant of {@link #read(Type)}.
+     *
+     * @param type type to read
+     * @return the read value
+     * @throws InformativeException if it fails to read
+     */
+    default double readDouble(Type<Double> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Primitive variant of {@link #write(Type, Object)}.
+     *
+     * @param type  type to write
+     * @param value value to write
+     */
+    default void writeDouble(Type<Double> type, double value) {
+        write(type, value);
+    }
+
+    /**
+     * Primitive variant of {@link #passthrough(Type)}.
+     *
+     * @param type type to read and write
+     * @return the read and written value
+     * @throws Exception if it fails to read or write
+     */
+    default double passthroughDouble(Type<Double> type) throws Exception {
+        final double value = readDouble(type);
+        writeDouble(type, value);
+        return value;
+    }
+
+    /**
+     * Primitive variant of {@link #get(Type, int)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @return the requested value
+     * @throws InformativeException if it fails to find it
+     */
+    default boolean getBoolean(Type<Boolean> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Primitive variant of {@link #set(Type, int, Object)}.
+     *
+     * @param type  type of the part
+     * @param index index of the part (relative to the type)
+     * @param value value to set the part to
+     * @throws InformativeException if it fails to set it
+     */
+    default void setBoolean(Type<Boolean> type, int index, boolean value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Primitive variant of {@link #read(Type)}.
+     *
+     * @param type type to read
+     * @return the read value
+     * @throws InformativeException if it fails to read
+     */
+    default boolean readBoolean(Type<Boolean> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Primitive variant of {@link #write(Type, Object)}.
+     *
+     * @param type  type to write
+     * @param value value to write
+     */
+    default void writeBoolean(Type<Boolean> type, boolean value) {
+        write(type, value);
+    }
+
+    /**
+     * Primitive variant of {@link #passthrough(Type)}.
+     *
+     * @param type type to read and write
+     * @return the read and written value
+     * @throws Exception if it fails to read or write
+     */
+    default boolean passthroughBoolean(Type<Boolean> type) throws Exception {
+        final boolean value = readBoolean(type);
+        writeBoolean(type, value);
+        return value;
+    }
+
     /**
      * Write the current output to a buffer.
      *
@@ -39,6 +39,14 @@ public interface PacketMapping {
      */
     void applyType(PacketWrapper wrapper);
 
+    /**
+     * Returns the packet id the given unmapped packet id is changed to.
+     *
+     * @param unmappedPacketId unmapped packet id
+     * @return mapped packet id, or the unmapped packet id if it is not changed
+     */
+    int mappedPacketId(int unmappedPacketId);
+
     /**
      * Returns a packet transformer to transform a packet from one protocol version to another.
      *
@@ -0,0 +1,169 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.protocol.remapper;
+
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
+import com.viaversion.viaversion.api.type.Type;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Packet handler running a sequence of plain type operations (map, read, create) in a single handler.
+ * Consecutive operations registered in {@link PacketHandlers} are fused into one instance, so they are
+ * run in a single loop instead of one handler call each, and primitive values are passed without boxing.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+final class FusedTypeHandler implements PacketHandler {
+    private static final byte MAP = 0;
+    private static final byte MAP_INT = 1;
+    private static final byte MAP_LONG = 2;
+    private static final byte MAP_SHORT = 3;
+    private static final byte MAP_BYTE = 4;
+    private static final byte MAP_FLOAT = 5;
+    private static final byte MAP_DOUBLE = 6;
+    private static final byte MAP_BOOLEAN = 7;
+    private static final byte READ = 8;
+    private static final byte CREATE = 9;
+    private final byte[] operations;
+    private final Type[] inputTypes;
+    private final Type[] outputTypes;
+    private final Object[] values;
+
+    private FusedTypeHandler(final byte[] operations, final Type[] inputTypes, final Type[] outputTypes, final Object[] values) {
+        this.operations = operations;
+        this.inputTypes = inputTypes;
+        this.outputTypes = outputTypes;
+        this.values = values;
+    }
+
+    private static FusedTypeHandler of(final byte operation, @Nullable final Type<?> inputType, @Nullable final Type<?> outputType, @Nullable final Object value) {
+        return new FusedTypeHandler(new byte[]{operation}, new Type[]{inputType}, new Type[]{outputType}, new Object[]{value});
+    }
+
+    static FusedTypeHandler map(final Type<?> oldType, final Type<?> newType) {
+        return of(mapOperation(oldType, newType), oldType, newType, null);
+    }
+
+    static FusedTypeHandler read(final Type<?> type) {
+        return of(READ, type, null, null);
+    }
+
+    static <T> FusedTypeHandler create(final Type<T> type, @Nullable final T value) {
+        return of(CREATE, null, type, value);
+    }
+
+    /**
+     * Returns the map operation to use, avoiding boxing if both types are primitive value types of the same output class.
+     */
+    private static byte mapOperation(final Type<?> oldType, final Type<?> newType) {
+        if (!(oldType instanceof PrimitiveValueType) || !(newType instanceof PrimitiveValueType)
+                || oldType.getOutputClass() != newType.getOutputClass()) {
+            return MAP;
+        }
+
+        final Class<?> outputClass = oldType.getOutputClass();
+        if (outputClass == Integer.class) {
+            return MAP_INT;
+        } else if (outputClass == Long.class) {
+            return MAP_LONG;
+        } else if (outputClass == Short.class) {
+            return MAP_SHORT;
+        } else if (outputClass == Byte.class) {
+            return MAP_BYTE;
+        } else if (outputClass == Float.class) {
+            return MAP_FLOAT;
+        } else if (outputClass == Double.class) {
+            return MAP_DOUBLE;
+        } else if (outputClass == Boolean.class) {
+            return MAP_BOOLEAN;
+        }
+        return MAP;
+    }
+
+    /**
+     * Returns a handler running the operations of this handler followed by the ones of the given handler.
+     *
+     * @param other handler to append
+     * @return fused handler
+     */
+    FusedTypeHandler fuse(final FusedTypeHandler other) {
+        final int length = operations.length;
+        final int newLength = length + other.operations.length;
+        final byte[] operations = Arrays.copyOf(this.operations, newLength);
+        final Type[] inputTypes = Arrays.copyOf(this.inputTypes, newLength);
+        final Type[] outputTypes = Arrays.copyOf(this.outputTypes, newLength);
+        final Object[] values = Arrays.copyOf(this.values, newLength);
+        System.arraycopy(other.operations, 0, operations, length, other.operations.length);
+        System.arraycopy(other.inputTypes, 0, inputTypes, length, other.inputTypes.length);
+        System.arraycopy(other.outputTypes, 0, outputTypes, length, other.outputTypes.length);
+        System.arraycopy(other.values, 0, values, length, other.values.length);
+        return new FusedTypeHandler(operations, inputTypes, outputTypes, values);
+    }
+
+    @Override
+    public void handle(final PacketWrapper wrapper) throws Exception {
+        for (int i = 0; i < operations.length; i++) {
+            final Type inputType = inputTypes[i];
+            final Type outputType = outputTypes[i];
+            switch (operations[i]) {
+                case MAP:
+                    wrapper.write(outputType, wrapper.read(inputType));
+                    break;
+                case MAP_INT:
+                    wrapper.writeInt(outputType, wrapper.readInt(inputType));
+                    break;
+                case MAP_LONG:
+                    wrapper.writeLong(outputType, wrapper.readLong(inputType));
+                    break;
+                case MAP_SHORT:
+                    wrapper.writeShort(outputType, wrapper.readShort(inputType));
+                    break;
+                case MAP_BYTE:
+                    wrapper.writeByte(outputType, wrapper.readByte(inputType));
+                    break;
+                case MAP_FLOAT:
+                    wrapper.writeFloat(outputType, wrapper.readFloat(inputType));
+                    break;
+                case MAP_DOUBLE:
+                    wrapper.writeDouble(outputType, wrapper.readDouble(inputType));
+                    break;
+                case MAP_BOOLEAN:
+                    wrapper.writeBoolean(outputType, wrapper.readBoolean(inputType));
+                    break;
+                case READ:
+                    wrapper.read(inputType);
+                    break;
+                case CREATE:
+                    wrapper.write(outputType, values[i]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operations[i]);
+            }
+        }
+    }
+
+    int size() {
+        return operations.length;
+    }
+}
@@ -41,7 +41,9 @@ public abstract class PacketHandlers implements PacketHandler {
             public void register() {
             }
         };
-        handlers.packetHandlers.addAll(valueRemappers);
+        for (final PacketHandler handler : valueRemappers) {
+            handlers.handler(handler);
+        }
         return handlers;
     }
 
@@ -51,7 +53,7 @@ public abstract class PacketHandlers implements PacketHandler {
      * @param type type to map
      */
     public <T> void map(Type<T> type) {
-        handler(wrapper -> wrapper.write(type, wrapper.read(type)));
+        handler(FusedTypeHandler.map(type, type));
     }
 
     /**
@@ -61,7 +63,7 @@ public abstract class PacketHandlers implements PacketHandler {
      * @param newType new type
      */
     public void map(Type oldType, Type newType) {
-        handler(wrapper -> wrapper.write(newType, wrapper.read(oldType)));
+        handler(FusedTypeHandler.map(oldType, newType));
     }
 
     /**
@@ -125,6 +127,12 @@ public abstract class PacketHandlers implements PacketHandler {
      * @param handler packet handler
      */
     public void handler(PacketHandler handler) {
+        final int lastIndex = packetHandlers.size() - 1;
+        if (handler instanceof FusedTypeHandler && lastIndex != -1 && packetHandlers.get(lastIndex) instanceof FusedTypeHandler) {
+            // Run consecutive type operations in a single handler
+            packetHandlers.set(lastIndex, ((FusedTypeHandler) packetHandlers.get(lastIndex)).fuse((FusedTypeHandler) handler));
+            return;
+        }
         packetHandlers.add(handler);
     }
 
@@ -135,7 +143,7 @@ public abstract class PacketHandlers implements PacketHandler {
      * @param value value to write
      */
     public <T> void create(Type<T> type, T value) {
-        handler(wrapper -> wrapper.write(type, value));
+        handler(FusedTypeHandler.create(type, value));
     }
 
     /**
@@ -144,7 +152,7 @@ public abstract class PacketHandlers implements PacketHandler {
      * @param type type to read
      */
     public void read(Type<?> type) {
-        handler(wrapper -> wrapper.read(type));
+        handler(FusedTypeHandler.read(type));
     }
 
     /**
@@ -160,6 +168,10 @@ public abstract class PacketHandlers implements PacketHandler {
     }
 
     public int handlersSize() {
-        return packetHandlers.size();
+        int size = 0;
+        for (final PacketHandler handler : packetHandlers) {
+            size += handler instanceof FusedTypeHandler ? ((FusedTypeHandler) handler).size() : 1;
+        }
+        return size;
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.type;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A type whose values can be stored as primitive bits inside a long, so they can be read and written without boxing.
+ * <p>
+ * All types with the same output class use the same representation: integral values and booleans are stored
+ * as their (sign extended) value, floats and doubles as their raw bits.
+ *
+ * @param <T> boxed value type
+ */
+public interface PrimitiveValueType<T> {
+
+    /**
+     * Reads a value from the buffer as its primitive bits.
+     *
+     * @param buffer buffer to read from
+     * @return primitive bits of the read value
+     */
+    long readBits(ByteBuf buffer);
+
+    /**
+     * Writes the value represented by the given primitive bits.
+     *
+     * @param buffer buffer to write to
+     * @param bits   primitive bits of the value
+     */
+    void writeBits(ByteBuf buffer, long bits);
+
+    /**
+     * Returns the boxed value of the given primitive bits.
+     *
+     * @param bits primitive bits of the value
+     * @return boxed value
+     */
+    T fromBits(long bits);
+
+    /**
+     * Returns the primitive bits of the given boxed value.
+     *
+     * @param value boxed value
+     * @return primitive bits of the value
+     */
+    long toBits(T value);
+}
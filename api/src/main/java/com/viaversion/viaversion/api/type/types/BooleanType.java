@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class BooleanType extends Type<Boolean> implements TypeConverter<Boolean> {
+public class BooleanType extends Type<Boolean> implements TypeConverter<Boolean>, PrimitiveValueType<Boolean> {
     public BooleanType() {
         super(Boolean.class);
     }
@@ -42,6 +43,26 @@ public class BooleanType extends Type<Boolean> implements TypeConverter<Boolean>
     }
 
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return buffer.readBoolean() ? 1 : 0;
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        buffer.writeBoolean(bits != 0);
+    }
+
+    @Override
+    public Boolean fromBits(long bits) {
+        return bits != 0;
+    }
+
+    @Override
+    public long toBits(Boolean value) {
+        return value ? 1 : 0;
+    }
+
     @Override
     public Boolean from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class ByteType extends Type<Byte> implements TypeConverter<Byte> {
+public class ByteType extends Type<Byte> implements TypeConverter<Byte>, PrimitiveValueType<Byte> {
     public ByteType() {
         super(Byte.class);
     }
@@ -51,6 +52,26 @@ public class ByteType extends Type<Byte> implements TypeConverter<Byte> {
         buffer.writeByte(object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        writePrimitive(buffer, (byte) bits);
+    }
+
+    @Override
+    public Byte fromBits(long bits) {
+        return (byte) bits;
+    }
+
+    @Override
+    public long toBits(Byte value) {
+        return value;
+    }
+
     @Override
     public Byte from(Object o) {
         if (o instanceof Number) {
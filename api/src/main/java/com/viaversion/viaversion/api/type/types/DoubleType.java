@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class DoubleType extends Type<Double> implements TypeConverter<Double> {
+public class DoubleType extends Type<Double> implements TypeConverter<Double>, PrimitiveValueType<Double> {
 
     public DoubleType() {
         super(Double.class);
@@ -58,6 +59,26 @@ public class DoubleType extends Type<Double> implements TypeConverter<Double> {
         buffer.writeDouble(object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return buffer.readLong();
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        buffer.writeLong(bits);
+    }
+
+    @Override
+    public Double fromBits(long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+
+    @Override
+    public long toBits(Double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
     @Override
     public Double from(Object o) {
         if (o instanceof Number) {
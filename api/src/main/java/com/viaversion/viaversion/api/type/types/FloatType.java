@@ -23,11 +23,12 @@
 package com.viaversion.viaversion.api.type.types;
 
 import com.viaversion.viaversion.api.type.OptionalType;
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class FloatType extends Type<Float> implements TypeConverter<Float> {
+public class FloatType extends Type<Float> implements TypeConverter<Float>, PrimitiveValueType<Float> {
 
     public FloatType() {
         super(Float.class);
@@ -59,6 +60,26 @@ public class FloatType extends Type<Float> implements TypeConverter<Float> {
         buffer.writeFloat(object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return buffer.readInt();
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        buffer.writeInt((int) bits);
+    }
+
+    @Override
+    public Float fromBits(long bits) {
+        return Float.intBitsToFloat((int) bits);
+    }
+
+    @Override
+    public long toBits(Float value) {
+        return Float.floatToRawIntBits(value);
+    }
+
     @Override
     public Float from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class IntType extends Type<Integer> implements TypeConverter<Integer> {
+public class IntType extends Type<Integer> implements TypeConverter<Integer>, PrimitiveValueType<Integer> {
     public IntType() {
         super(Integer.class);
     }
@@ -41,6 +42,26 @@ public class IntType extends Type<Integer> implements TypeConverter<Integer> {
         buffer.writeInt(object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return buffer.readInt();
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        buffer.writeInt((int) bits);
+    }
+
+    @Override
+    public Integer fromBits(long bits) {
+        return (int) bits;
+    }
+
+    @Override
+    public long toBits(Integer value) {
+        return value;
+    }
+
     @Override
     public Integer from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class LongType extends Type<Long> implements TypeConverter<Long> {
+public class LongType extends Type<Long> implements TypeConverter<Long>, PrimitiveValueType<Long> {
 
     public LongType() {
         super(Long.class);
@@ -50,6 +51,26 @@ public class LongType extends Type<Long> implements TypeConverter<Long> {
         buffer.writeLong(object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        writePrimitive(buffer, bits);
+    }
+
+    @Override
+    public Long fromBits(long bits) {
+        return bits;
+    }
+
+    @Override
+    public long toBits(Long value) {
+        return value;
+    }
+
     @Override
     public Long from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class ShortType extends Type<Short> implements TypeConverter<Short> {
+public class ShortType extends Type<Short> implements TypeConverter<Short>, PrimitiveValueType<Short> {
 
     public ShortType() {
         super(Short.class);
@@ -58,6 +59,26 @@ public class ShortType extends Type<Short> implements TypeConverter<Short> {
         buffer.writeShort(object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        writePrimitive(buffer, (short) bits);
+    }
+
+    @Override
+    public Short fromBits(long bits) {
+        return (short) bits;
+    }
+
+    @Override
+    public long toBits(Short value) {
+        return value;
+    }
+
     @Override
     public Short from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class UnsignedByteType extends Type<Short> implements TypeConverter<Short> {
+public class UnsignedByteType extends Type<Short> implements TypeConverter<Short>, PrimitiveValueType<Short> {
     public UnsignedByteType() {
         super("Unsigned Byte", Short.class);
     }
@@ -41,6 +42,26 @@ public class UnsignedByteType extends Type<Short> implements TypeConverter<Short
         buffer.writeByte(object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return buffer.readUnsignedByte();
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        buffer.writeByte((int) bits);
+    }
+
+    @Override
+    public Short fromBits(long bits) {
+        return (short) bits;
+    }
+
+    @Override
+    public long toBits(Short value) {
+        return value;
+    }
+
     @Override
     public Short from(Object o) {
         if (o instanceof Number) {
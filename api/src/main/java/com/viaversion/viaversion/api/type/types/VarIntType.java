@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class VarIntType extends Type<Integer> implements TypeConverter<Integer> {
+public class VarIntType extends Type<Integer> implements TypeConverter<Integer>, PrimitiveValueType<Integer> {
 
     private static final int CONTINUE_BIT = 0x80;
     private static final int VALUE_BITS = 0x7F;
@@ -61,6 +62,35 @@ public class VarIntType extends Type<Integer> implements TypeConverter<Integer>
         buffer.writeByte(value);
     }
 
+    /**
+     * Reserves space for a length prefix of the maximum VarInt length, to be set once the following data has been written.
+     *
+     * @param buffer buffer to write to
+     * @return index of the reserved length prefix
+     * @see #setReservedLength(ByteBuf, int)
+     */
+    public int reserveLength(ByteBuf buffer) {
+        final int index = buffer.writerIndex();
+        buffer.writeZero(MAX_BYTES);
+        return index;
+    }
+
+    /**
+     * Sets the length prefix reserved with {@link #reserveLength(ByteBuf)} to the number of bytes written after it,
+     * padding the VarInt to its maximum length.
+     *
+     * @param buffer buffer the length prefix was reserved in
+     * @param index  index of the reserved length prefix
+     */
+    public void setReservedLength(ByteBuf buffer, int index) {
+        int value = buffer.writerIndex() - index - MAX_BYTES;
+        for (int i = 0; i < MAX_BYTES - 1; i++) {
+            buffer.setByte(index + i, (value & VALUE_BITS) | CONTINUE_BIT);
+            value >>>= 7;
+        }
+        buffer.setByte(index + MAX_BYTES - 1, value);
+    }
+
     /**
      * @deprecated use {@link #readPrimitive(ByteBuf)} for manual reading to avoid wrapping
      */
@@ -79,6 +109,26 @@ public class VarIntType extends Type<Integer> implements TypeConverter<Integer>
         writePrimitive(buffer, object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        writePrimitive(buffer, (int) bits);
+    }
+
+    @Override
+    public Integer fromBits(long bits) {
+        return (int) bits;
+    }
+
+    @Override
+    public long toBits(Integer value) {
+        return value;
+    }
+
     @Override
     public Integer from(Object o) {
         if (o instanceof Number) {
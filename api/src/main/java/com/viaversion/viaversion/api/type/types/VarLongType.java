@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class VarLongType extends Type<Long> implements TypeConverter<Long> {
+public class VarLongType extends Type<Long> implements TypeConverter<Long>, PrimitiveValueType<Long> {
 
     public VarLongType() {
         super("VarLong", Long.class);
@@ -80,6 +81,26 @@ public class VarLongType extends Type<Long> implements TypeConverter<Long> {
         writePrimitive(buffer, object);
     }
 
+    @Override
+    public long readBits(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
+
+    @Override
+    public void writeBits(ByteBuf buffer, long bits) {
+        writePrimitive(buffer, bits);
+    }
+
+    @Override
+    public Long fromBits(long bits) {
+        return bits;
+    }
+
+    @Override
+    public long toBits(Long value) {
+        return value;
+    }
+
     @Override
     public Long from(Object o) {
         if (o instanceof Number) {
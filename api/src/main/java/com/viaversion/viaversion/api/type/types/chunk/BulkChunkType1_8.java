@@ -30,6 +30,10 @@ import io.netty.buffer.ByteBuf;
 public class BulkChunkType1_8 extends Type<Chunk[]> {
 
     public static final Type<Chunk[]> TYPE = new BulkChunkType1_8();
+    /**
+     * Reads the chunk entries of a bulk chunk packet without deserializing them, see {@link ChunkBulkSection#readChunk()}.
+     */
+    public static final Type<ChunkBulkSection[]> SECTIONS_TYPE = new SectionsType();
     private static final int BLOCKS_PER_SECTION = 16 * 16 * 16;
     private static final int BLOCKS_BYTES = BLOCKS_PER_SECTION * 2;
     private static final int LIGHT_BYTES = BLOCKS_PER_SECTION / 2;
@@ -41,22 +45,11 @@ public class BulkChunkType1_8 extends Type<Chunk[]> {
 
     @Override
     public Chunk[] read(ByteBuf input) throws Exception {
-        final boolean skyLight = input.readBoolean();
-        final int count = Type.VAR_INT.readPrimitive(input);
-        final Chunk[] chunks = new Chunk[count];
-        final ChunkBulkSection[] chunkInfo = new ChunkBulkSection[count];
-
-        // Read metadata
-        for (int i = 0; i < chunkInfo.length; i++) {
-            chunkInfo[i] = new ChunkBulkSection(input, skyLight);
-        }
-        // Read data
+        final ChunkBulkSection[] chunkInfo = SECTIONS_TYPE.read(input);
+        final Chunk[] chunks = new Chunk[chunkInfo.length];
         for (int i = 0; i < chunks.length; i++) {
-            final ChunkBulkSection chunkBulkSection = chunkInfo[i];
-            chunkBulkSection.readData(input);
-            chunks[i] = ChunkType1_8.deserialize(chunkBulkSection.chunkX, chunkBulkSection.chunkZ, true, skyLight, chunkBulkSection.bitmask, chunkBulkSection.data());
+            chunks[i] = chunkInfo[i].readChunk();
         }
-
         return chunks;
     }
 
@@ -83,7 +76,48 @@ public class BulkChunkType1_8 extends Type<Chunk[]> {
         }
         // Write data
         for (Chunk chunk : chunks) {
-            output.writeBytes(ChunkType1_8.serialize(chunk));
+            ChunkType1_8.serialize(chunk, output);
+        }
+    }
+
+    private static final class SectionsType extends Type<ChunkBulkSection[]> {
+
+        private SectionsType() {
+            super(ChunkBulkSection[].class);
+        }
+
+        @Override
+        public ChunkBulkSection[] read(final ByteBuf input) throws Exception {
+            final boolean skyLight = input.readBoolean();
+            final int count = Type.VAR_INT.readPrimitive(input);
+            final ChunkBulkSection[] chunkInfo = new ChunkBulkSection[count];
+
+            // Read metadata
+            for (int i = 0; i < chunkInfo.length; i++) {
+                chunkInfo[i] = new ChunkBulkSection(input, skyLight);
+            }
+            // Keep a view of the data instead of copying it
+            for (final ChunkBulkSection chunkBulkSection : chunkInfo) {
+                chunkBulkSection.dataSlice = input.readSlice(chunkBulkSection.dataLength);
+            }
+            return chunkInfo;
+        }
+
+        @Override
+        public void write(final ByteBuf output, final ChunkBulkSection[] chunkInfo) throws Exception {
+            output.writeBoolean(chunkInfo.length != 0 && chunkInfo[0].skyLight);
+            Type.VAR_INT.writePrimitive(output, chunkInfo.length);
+
+            // Write metadata
+            for (final ChunkBulkSection chunkBulkSection : chunkInfo) {
+                output.writeInt(chunkBulkSection.chunkX);
+                output.writeInt(chunkBulkSection.chunkZ);
+                output.writeShort(chunkBulkSection.bitmask);
+            }
+            // Write data
+            for (final ChunkBulkSection chunkBulkSection : chunkInfo) {
+                output.writeBytes(chunkBulkSection.data());
+            }
         }
     }
 
@@ -91,18 +125,36 @@ public class BulkChunkType1_8 extends Type<Chunk[]> {
         private final int chunkX;
         private final int chunkZ;
         private final int bitmask;
-        private final byte[] data;
+        private final boolean skyLight;
+        private final int dataLength;
+        private byte[] data;
+        private ByteBuf dataSlice; // Only valid while the packet is being handled, if read with SECTIONS_TYPE
 
         public ChunkBulkSection(final ByteBuf input, final boolean skyLight) {
             this.chunkX = input.readInt();
             this.chunkZ = input.readInt();
             this.bitmask = input.readUnsignedShort();
+            this.skyLight = skyLight;
             final int setSections = Integer.bitCount(this.bitmask);
-            this.data = new byte[setSections * (BLOCKS_BYTES + (skyLight ? 2 * LIGHT_BYTES : LIGHT_BYTES)) + BIOME_BYTES];
+            this.dataLength = setSections * (BLOCKS_BYTES + (skyLight ? 2 * LIGHT_BYTES : LIGHT_BYTES)) + BIOME_BYTES;
         }
 
         public void readData(final ByteBuf input) {
-            input.readBytes(this.data);
+            this.dataSlice = null;
+            input.readBytes(data());
+        }
+
+        /**
+         * Deserializes the chunk from its data. If read with {@link #SECTIONS_TYPE}, this reads directly
+         * from the packet buffer and has to be called while the packet is being handled.
+         *
+         * @return deserialized chunk
+         */
+        public Chunk readChunk() throws Exception {
+            if (dataSlice != null) {
+                return ChunkType1_8.deserialize(chunkX, chunkZ, true, skyLight, bitmask, dataSlice.duplicate());
+            }
+            return ChunkType1_8.deserialize(chunkX, chunkZ, true, skyLight, bitmask, data());
         }
 
         public int chunkX() {
@@ -117,7 +169,20 @@ public class BulkChunkType1_8 extends Type<Chunk[]> {
             return this.bitmask;
         }
 
+        /**
+         * Returns the raw data of the chunk, only copied into an array on the first call.
+         * If read with {@link #SECTIONS_TYPE}, the first call has to happen while the packet is being handled.
+         *
+         * @return raw chunk data
+         */
         public byte[] data() {
+            if (this.data == null) {
+                this.data = new byte[dataLength];
+                if (dataSlice != null) {
+                    dataSlice.getBytes(dataSlice.readerIndex(), this.data);
+                    dataSlice = null;
+                }
+            }
             return this.data;
         }
     }
@@ -32,6 +32,7 @@ import io.netty.buffer.ByteBuf;
 
 public class ChunkSectionType1_16 extends Type<ChunkSection> {
     private static final int GLOBAL_PALETTE = 15;
+    private static final ThreadLocal<int[]> VALUES = ThreadLocal.withInitial(() -> new int[ChunkSection.SIZE]);
 
     public ChunkSectionType1_16() {
         super(ChunkSection.class);
@@ -67,8 +68,17 @@ public class ChunkSectionType1_16 extends Type<ChunkSection> {
             int expectedLength = (ChunkSection.SIZE + valuesPerLong - 1) / valuesPerLong;
             if (blockData.length == expectedLength) {
                 DataPalette blockPalette = chunkSection.palette(PaletteType.BLOCKS);
-                CompactArrayUtil.iterateCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE, blockData,
-                        bitsPerBlock == GLOBAL_PALETTE ? blockPalette::setIdAt : blockPalette::setPaletteIndexAt);
+                int[] values = VALUES.get();
+                CompactArrayUtil.unpackCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE, blockData, values);
+                if (bitsPerBlock == GLOBAL_PALETTE) {
+                    for (int i = 0; i < ChunkSection.SIZE; i++) {
+                        blockPalette.setIdAt(i, values[i]);
+                    }
+                } else {
+                    for (int i = 0; i < ChunkSection.SIZE; i++) {
+                        blockPalette.setPaletteIndexAt(i, values[i]);
+                    }
+                }
             }
         }
 
@@ -97,8 +107,18 @@ public class ChunkSectionType1_16 extends Type<ChunkSection> {
             }
         }
 
-        long[] data = CompactArrayUtil.createCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE,
-                bitsPerBlock == GLOBAL_PALETTE ? blockPalette::idAt : blockPalette::paletteIndexAt);
+        int[] values = VALUES.get();
+        if (bitsPerBlock == GLOBAL_PALETTE) {
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                values[i] = blockPalette.idAt(i);
+            }
+        } else {
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                values[i] = blockPalette.paletteIndexAt(i);
+            }
+        }
+
+        long[] data = CompactArrayUtil.packCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE, values);
         Type.LONG_ARRAY_PRIMITIVE.write(buffer, data);
     }
 }
@@ -96,23 +96,15 @@ public class ChunkType1_13 extends Type<Chunk> {
         output.writeBoolean(chunk.isFullChunk());
         Type.VAR_INT.writePrimitive(output, chunk.getBitmask());
 
-        ByteBuf buf = output.alloc().buffer();
-        try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-                Types1_13.CHUNK_SECTION.write(buf, section);
-                section.getLight().writeBlockLight(buf);
-
-                if (!section.getLight().hasSkyLight()) continue; // No sky light, we're done here.
-                section.getLight().writeSkyLight(buf);
+        final int lengthIndex = Type.VAR_INT.reserveLength(output);
+        for (int i = 0; i < 16; i++) {
+            ChunkSection section = chunk.getSections()[i];
+            if (section == null) continue; // Section not set
+            Types1_13.CHUNK_SECTION.write(output, section);
+            section.getLight().writeBlockLight(output);
 
-            }
-            buf.readerIndex(0);
-            Type.VAR_INT.writePrimitive(output, buf.readableBytes() + (chunk.isBiomeData() ? 1024 : 0));
-            output.writeBytes(buf);
-        } finally {
-            buf.release(); // release buffer
+            if (!section.getLight().hasSkyLight()) continue; // No sky light, we're done here.
+            section.getLight().writeSkyLight(output);
         }
 
         // Write biome data
@@ -121,6 +113,7 @@ public class ChunkType1_13 extends Type<Chunk> {
                 output.writeInt(value);
             }
         }
+        Type.VAR_INT.setReservedLength(output, lengthIndex);
 
         // Write Block Entities
         Type.NAMED_COMPOUND_TAG_ARRAY.write(output, chunk.getBlockEntities().toArray(new CompoundTag[0]));
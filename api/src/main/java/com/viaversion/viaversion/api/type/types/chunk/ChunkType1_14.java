@@ -83,20 +83,13 @@ public class ChunkType1_14 extends Type<Chunk> {
         Type.VAR_INT.writePrimitive(output, chunk.getBitmask());
         Type.NAMED_COMPOUND_TAG.write(output, chunk.getHeightMap());
 
-        ByteBuf buf = output.alloc().buffer();
-        try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-
-                buf.writeShort(section.getNonAirBlocksCount());
-                Types1_13.CHUNK_SECTION.write(buf, section);
-            }
-            buf.readerIndex(0);
-            Type.VAR_INT.writePrimitive(output, buf.readableBytes() + (chunk.isBiomeData() ? 1024 : 0)); // 256 * 4
-            output.writeBytes(buf);
-        } finally {
-            buf.release(); // release buffer
+        final int lengthIndex = Type.VAR_INT.reserveLength(output);
+        for (int i = 0; i < 16; i++) {
+            ChunkSection section = chunk.getSections()[i];
+            if (section == null) continue; // Section not set
+
+            output.writeShort(section.getNonAirBlocksCount());
+            Types1_13.CHUNK_SECTION.write(output, section);
         }
 
         // Write biome data
@@ -105,6 +98,7 @@ public class ChunkType1_14 extends Type<Chunk> {
                 output.writeInt(value & 0xFF); // This is a temporary workaround, we'll look into fixing this soon :)
             }
         }
+        Type.VAR_INT.setReservedLength(output, lengthIndex);
 
         // Write Block Entities
         Type.NAMED_COMPOUND_TAG_ARRAY.write(output, chunk.getBlockEntities().toArray(new CompoundTag[0]));
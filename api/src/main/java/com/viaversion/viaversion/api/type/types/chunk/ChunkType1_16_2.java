@@ -87,21 +87,15 @@ public class ChunkType1_16_2 extends Type<Chunk> {
             Type.VAR_INT_ARRAY_PRIMITIVE.write(output, chunk.getBiomeData());
         }
 
-        ByteBuf buf = output.alloc().buffer();
-        try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-
-                buf.writeShort(section.getNonAirBlocksCount());
-                Types1_16.CHUNK_SECTION.write(buf, section);
-            }
-            buf.readerIndex(0);
-            Type.VAR_INT.writePrimitive(output, buf.readableBytes());
-            output.writeBytes(buf);
-        } finally {
-            buf.release(); // release buffer
+        final int lengthIndex = Type.VAR_INT.reserveLength(output);
+        for (int i = 0; i < 16; i++) {
+            ChunkSection section = chunk.getSections()[i];
+            if (section == null) continue; // Section not set
+
+            output.writeShort(section.getNonAirBlocksCount());
+            Types1_16.CHUNK_SECTION.write(output, section);
         }
+        Type.VAR_INT.setReservedLength(output, lengthIndex);
 
         // Write Block Entities
         Type.NAMED_COMPOUND_TAG_ARRAY.write(output, chunk.getBlockEntities().toArray(EMPTY_COMPOUNDS));
@@ -51,14 +51,10 @@ public final class ChunkType1_18 extends Type<Chunk> {
         final CompoundTag heightMap = Type.NAMED_COMPOUND_TAG.read(buffer);
 
         // Read sections
-        final ByteBuf sectionsBuf = buffer.readBytes(Type.VAR_INT.readPrimitive(buffer));
+        final ByteBuf sectionsBuf = buffer.readSlice(Type.VAR_INT.readPrimitive(buffer));
         final ChunkSection[] sections = new ChunkSection[ySectionCount];
-        try {
-            for (int i = 0; i < ySectionCount; i++) {
-                sections[i] = sectionType.read(sectionsBuf);
-            }
-        } finally {
-            sectionsBuf.release();
+        for (int i = 0; i < ySectionCount; i++) {
+            sections[i] = sectionType.read(sectionsBuf);
         }
 
         final int blockEntitiesLength = Type.VAR_INT.readPrimitive(buffer);
@@ -77,17 +73,11 @@ public final class ChunkType1_18 extends Type<Chunk> {
 
         Type.NAMED_COMPOUND_TAG.write(buffer, chunk.getHeightMap());
 
-        final ByteBuf sectionBuffer = buffer.alloc().buffer();
-        try {
-            for (final ChunkSection section : chunk.getSections()) {
-                sectionType.write(sectionBuffer, section);
-            }
-            sectionBuffer.readerIndex(0);
-            Type.VAR_INT.writePrimitive(buffer, sectionBuffer.readableBytes());
-            buffer.writeBytes(sectionBuffer);
-        } finally {
-            sectionBuffer.release(); // release buffer
+        final int lengthIndex = Type.VAR_INT.reserveLength(buffer);
+        for (final ChunkSection section : chunk.getSections()) {
+            sectionType.write(buffer, section);
         }
+        Type.VAR_INT.setReservedLength(buffer, lengthIndex);
 
         Type.VAR_INT.writePrimitive(buffer, chunk.blockEntities().size());
         for (final BlockEntity blockEntity : chunk.blockEntities()) {
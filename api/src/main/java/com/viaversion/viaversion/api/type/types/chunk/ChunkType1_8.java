@@ -57,9 +57,7 @@ public class ChunkType1_8 extends Type<Chunk> {
         final int chunkZ = input.readInt();
         final boolean fullChunk = input.readBoolean();
         final int bitmask = input.readUnsignedShort();
-        final int dataLength = Type.VAR_INT.readPrimitive(input);
-        final byte[] data = new byte[dataLength];
-        input.readBytes(data);
+        final ByteBuf data = input.readSlice(Type.VAR_INT.readPrimitive(input));
 
         // Check if the chunk is an unload packet and return early
         if (fullChunk && bitmask == 0) {
@@ -80,14 +78,18 @@ public class ChunkType1_8 extends Type<Chunk> {
         output.writeInt(chunk.getZ());
         output.writeBoolean(chunk.isFullChunk());
         output.writeShort(chunk.getBitmask());
-        final byte[] data = serialize(chunk);
-        Type.VAR_INT.writePrimitive(output, data.length);
-        output.writeBytes(data);
+        final int lengthIndex = Type.VAR_INT.reserveLength(output);
+        serialize(chunk, output);
+        Type.VAR_INT.setReservedLength(output, lengthIndex);
     }
 
     // Used for normal and bulk chunks
     public static Chunk deserialize(final int chunkX, final int chunkZ, final boolean fullChunk, final boolean skyLight, final int bitmask, final byte[] data) throws Exception {
-        final ByteBuf input = Unpooled.wrappedBuffer(data);
+        return deserialize(chunkX, chunkZ, fullChunk, skyLight, bitmask, Unpooled.wrappedBuffer(data));
+    }
+
+    // Used for normal and bulk chunks
+    public static Chunk deserialize(final int chunkX, final int chunkZ, final boolean fullChunk, final boolean skyLight, final int bitmask, final ByteBuf input) throws Exception {
 
         final ChunkSection[] sections = new ChunkSection[16];
         int[] biomeData = null;
@@ -119,7 +121,6 @@ public class ChunkType1_8 extends Type<Chunk> {
                 biomeData[i] = input.readUnsignedByte();
             }
         }
-        input.release();
 
         return new BaseChunk(chunkX, chunkZ, fullChunk, false, bitmask, sections, biomeData, new ArrayList<>());
     }
@@ -127,6 +128,18 @@ public class ChunkType1_8 extends Type<Chunk> {
     // Used for normal and bulk chunks
     public static byte[] serialize(final Chunk chunk) throws Exception {
         final ByteBuf output = Unpooled.buffer();
+        try {
+            serialize(chunk, output);
+            final byte[] data = new byte[output.readableBytes()];
+            output.readBytes(data);
+            return data;
+        } finally {
+            output.release();
+        }
+    }
+
+    // Used for normal and bulk chunks
+    public static void serialize(final Chunk chunk, final ByteBuf output) throws Exception {
 
         // Write blocks
         for (int i = 0; i < chunk.getSections().length; i++) {
@@ -153,11 +166,6 @@ public class ChunkType1_8 extends Type<Chunk> {
                 output.writeByte((byte) biome);
             }
         }
-        final byte[] data = new byte[output.readableBytes()];
-        output.readBytes(data);
-        output.release();
-
-        return data;
     }
 
 }
@@ -103,23 +103,15 @@ public class ChunkType1_9_1 extends Type<Chunk> {
         output.writeBoolean(chunk.isFullChunk());
         Type.VAR_INT.writePrimitive(output, chunk.getBitmask());
 
-        ByteBuf buf = output.alloc().buffer();
-        try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-                Types1_9.CHUNK_SECTION.write(buf, section);
-                section.getLight().writeBlockLight(buf);
-
-                if (!section.getLight().hasSkyLight()) continue; // No sky light, we're done here.
-                section.getLight().writeSkyLight(buf);
-
-            }
-            buf.readerIndex(0);
-            Type.VAR_INT.writePrimitive(output, buf.readableBytes() + (chunk.isBiomeData() ? 256 : 0));
-            output.writeBytes(buf);
-        } finally {
-            buf.release(); // release buffer
+        final int lengthIndex = Type.VAR_INT.reserveLength(output);
+        for (int i = 0; i < 16; i++) {
+            ChunkSection section = chunk.getSections()[i];
+            if (section == null) continue; // Section not set
+            Types1_9.CHUNK_SECTION.write(output, section);
+            section.getLight().writeBlockLight(output);
+
+            if (!section.getLight().hasSkyLight()) continue; // No sky light, we're done here.
+            section.getLight().writeSkyLight(output);
         }
 
         // Write biome data
@@ -128,5 +120,6 @@ public class ChunkType1_9_1 extends Type<Chunk> {
                 output.writeByte((byte) biome);
             }
         }
+        Type.VAR_INT.setReservedLength(output, lengthIndex);
     }
 }
@@ -31,6 +31,7 @@ import com.viaversion.viaversion.util.MathUtil;
 import io.netty.buffer.ByteBuf;
 
 public final class PaletteType1_18 extends Type<DataPalette> {
+    private static final ThreadLocal<int[]> VALUES = ThreadLocal.withInitial(() -> new int[PaletteType.BLOCKS.size()]);
     private final int globalPaletteBits;
     private final PaletteType type;
 
@@ -75,8 +76,16 @@ public final class PaletteType1_18 extends Type<DataPalette> {
             final int valuesPerLong = (char) (64 / bitsPerValue);
             final int expectedLength = (type.size() + valuesPerLong - 1) / valuesPerLong;
             if (values.length == expectedLength) { // Thanks, Hypixel
-                CompactArrayUtil.iterateCompactArrayWithPadding(bitsPerValue, type.size(), values,
-                        bitsPerValue == globalPaletteBits ? palette::setIdAt : palette::setPaletteIndexAt);
+                if (bitsPerValue == globalPaletteBits) {
+                    final int[] ids = VALUES.get();
+                    CompactArrayUtil.unpackCompactArrayWithPadding(bitsPerValue, type.size(), values, ids);
+                    for (int i = 0; i < type.size(); i++) {
+                        palette.setIdAt(i, ids[i]);
+                    }
+                } else {
+                    // Only unpacked once needed, and written as is if just the palette is changed
+                    palette.setPackedPaletteIndices(bitsPerValue, values);
+                }
             }
         }
         return palette;
@@ -110,6 +119,24 @@ public final class PaletteType1_18 extends Type<DataPalette> {
             }
         }
 
-        Type.LONG_ARRAY_PRIMITIVE.write(buffer, CompactArrayUtil.createCompactArrayWithPadding(bitsPerValue, type.size(), bitsPerValue == globalPaletteBits ? palette::idAt : palette::paletteIndexAt));
+        if (bitsPerValue != globalPaletteBits && palette instanceof DataPaletteImpl) {
+            final long[] packedIndices = ((DataPaletteImpl) palette).packedPaletteIndices(bitsPerValue);
+            if (packedIndices != null) {
+                Type.LONG_ARRAY_PRIMITIVE.write(buffer, packedIndices);
+                return;
+            }
+        }
+
+        final int[] values = VALUES.get();
+        if (bitsPerValue == globalPaletteBits) {
+            for (int i = 0; i < type.size(); i++) {
+                values[i] = palette.idAt(i);
+            }
+        } else {
+            for (int i = 0; i < type.size(); i++) {
+                values[i] = palette.paletteIndexAt(i);
+            }
+        }
+        Type.LONG_ARRAY_PRIMITIVE.write(buffer, CompactArrayUtil.packCompactArrayWithPadding(bitsPerValue, type.size(), values));
     }
 }
@@ -88,6 +88,83 @@ public final class CompactArrayUtil {
         }
     }
 
+    /**
+     * Unpacks a compact array with padding into the given array, without going through a consumer per entry.
+     *
+     * @param bitsPerEntry bits per entry
+     * @param entries      number of entries
+     * @param data         compact array with padding
+     * @param output       array to unpack into, at least as long as the number of entries
+     */
+    public static void unpackCompactArrayWithPadding(int bitsPerEntry, int entries, long[] data, int[] output) {
+        switch (bitsPerEntry) {
+            case 4:
+                for (int cellIndex = 0, i = 0; i < entries; cellIndex++) {
+                    final long cell = data[cellIndex];
+                    for (int bitIndex = 0; bitIndex < 64 && i < entries; bitIndex += 4) {
+                        output[i++] = (int) (cell >>> bitIndex) & 0xF;
+                    }
+                }
+                break;
+            case 8:
+                for (int cellIndex = 0, i = 0; i < entries; cellIndex++) {
+                    final long cell = data[cellIndex];
+                    for (int bitIndex = 0; bitIndex < 64 && i < entries; bitIndex += 8) {
+                        output[i++] = (int) (cell >>> bitIndex) & 0xFF;
+                    }
+                }
+                break;
+            default:
+                // Covers the other common sizes (5, 6, 15) in a cell-wise loop without any division per entry
+                final int valuesPerLong = 64 / bitsPerEntry;
+                final int maxEntryValue = (1 << bitsPerEntry) - 1;
+                for (int cellIndex = 0, i = 0; i < entries; cellIndex++) {
+                    long cell = data[cellIndex];
+                    final int end = Math.min(i + valuesPerLong, entries);
+                    for (; i < end; i++) {
+                        output[i] = (int) cell & maxEntryValue;
+                        cell >>>= bitsPerEntry;
+                    }
+                }
+        }
+    }
+
+    /**
+     * Packs the given values into a compact array with padding, without going through a value getter per entry.
+     *
+     * @param bitsPerEntry bits per entry
+     * @param entries      number of entries
+     * @param values       values to pack, each fitting into the given bits per entry
+     * @return compact array with padding
+     */
+    public static long[] packCompactArrayWithPadding(int bitsPerEntry, int entries, int[] values) {
+        final int valuesPerLong = 64 / bitsPerEntry;
+        final long[] data = new long[(entries + valuesPerLong - 1) / valuesPerLong];
+        packCompactArrayWithPadding(bitsPerEntry, entries, values, data);
+        return data;
+    }
+
+    /**
+     * Packs the given values into the given compact array with padding.
+     *
+     * @param bitsPerEntry bits per entry
+     * @param entries      number of entries
+     * @param values       values to pack, each fitting into the given bits per entry
+     * @param data         array to pack into, fully overwritten up to the cell of the last entry
+     */
+    public static void packCompactArrayWithPadding(int bitsPerEntry, int entries, int[] values, long[] data) {
+        final int valuesPerLong = 64 / bitsPerEntry;
+        final long maxEntryValue = (1L << bitsPerEntry) - 1;
+        for (int cellIndex = 0, i = 0; i < entries; cellIndex++) {
+            long cell = 0;
+            final int end = Math.min(i + valuesPerLong, entries);
+            for (int bitIndex = 0; i < end; i++, bitIndex += bitsPerEntry) {
+                cell |= (values[i] & maxEntryValue) << bitIndex;
+            }
+            data[cellIndex] = cell;
+        }
+    }
+
     public static long[] createCompactArray(int bitsPerEntry, int entries, IntToLongFunction valueGetter) {
         long maxEntryValue = (1L << bitsPerEntry) - 1;
         long[] data = new long[(int) Math.ceil(entries * bitsPerEntry / 64.0)];
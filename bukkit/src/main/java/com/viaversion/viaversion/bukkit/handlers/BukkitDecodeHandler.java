@@ -19,6 +19,7 @@ package com.viaversion.viaversion.bukkit.handlers;
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.bukkit.util.NMSUtil;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelDecoderException;
 import com.viaversion.viaversion.exception.InformativeException;
@@ -40,6 +41,10 @@ public final class BukkitDecodeHandler extends MessageToMessageDecoder<ByteBuf>
 
     @Override
     protected void decode(final ChannelHandlerContext ctx, final ByteBuf bytebuf, final List<Object> out) throws Exception {
+        if (connection instanceof UserConnectionImpl && ((UserConnectionImpl) connection).holdServerbound(bytebuf)) {
+            // Decoded once the connection resumes
+            return;
+        }
         if (!connection.checkServerboundPacket()) {
             throw CancelDecoderException.generate(null);
         }
@@ -48,9 +53,15 @@ public final class BukkitDecodeHandler extends MessageToMessageDecoder<ByteBuf>
             return;
         }
 
-        final ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
+        final ByteBuf passthroughBuf = connection.passthroughIncoming(bytebuf);
+        if (passthroughBuf != null) {
+            out.add(passthroughBuf);
+            return;
+        }
+
+        final ByteBuf transformedBuf = ctx.alloc().buffer();
         try {
-            connection.transformIncoming(transformedBuf, CancelDecoderException::generate);
+            connection.transformIncoming(bytebuf, transformedBuf, CancelDecoderException::generate);
             out.add(transformedBuf.retain());
         } finally {
             transformedBuf.release();
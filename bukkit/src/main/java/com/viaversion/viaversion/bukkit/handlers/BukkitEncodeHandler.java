@@ -18,27 +18,54 @@
 package com.viaversion.viaversion.bukkit.handlers;
 
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.bukkit.util.NMSUtil;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
 import com.viaversion.viaversion.exception.InformativeException;
+import com.viaversion.viaversion.handlers.AsyncTransformWriter;
 import com.viaversion.viaversion.util.PipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.ChannelPipeline;
-import io.netty.handler.codec.ByteToMessageDecoder;
-import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import java.util.List;
 
 @ChannelHandler.Sharable
 public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection connection;
+    private final AsyncTransformWriter asyncWriter;
     private boolean handledCompression = BukkitChannelInitializer.COMPRESSION_ENABLED_EVENT != null;
 
     public BukkitEncodeHandler(final UserConnection connection) {
         this.connection = connection;
+        this.asyncWriter = AsyncTransformWriter.create(connection);
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+        // Packets may still be compressed before the handler order has been fixed
+        if (asyncWriter == null || !handledCompression || !asyncWriter.write(ctx, msg, promise, this::write)) {
+            super.write(ctx, msg, promise);
+        }
+    }
+
+    @Override
+    public void flush(final ChannelHandlerContext ctx) throws Exception {
+        if (asyncWriter == null || !asyncWriter.flush(ctx)) {
+            super.flush(ctx);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) throws Exception {
+        // Only release held back writes if the channel is gone, not when the handler order is fixed
+        if (asyncWriter != null && !ctx.channel().isOpen()) {
+            asyncWriter.release();
+        }
+        super.handlerRemoved(ctx);
     }
 
     @Override
@@ -51,21 +78,80 @@ public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf>
             return;
         }
 
-        final ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            final boolean needsCompression = !handledCompression && handleCompressionOrder(ctx, transformedBuf);
-            connection.transformClientbound(transformedBuf, CancelEncoderException::generate);
-            if (needsCompression) {
-                recompress(ctx, transformedBuf);
-            }
+        if (!handledCompression && handleCompressionOrder(ctx)) {
+            // The Minecraft compressor has already compressed this packet due to the bad order
+            encodeCompressed(ctx, bytebuf, out);
+            return;
+        }
 
+        final ByteBuf passthroughBuf = connection.passthroughClientbound(bytebuf);
+        if (passthroughBuf != null) {
+            out.add(passthroughBuf);
+            return;
+        }
+
+        final ByteBuf transformedBuf = ctx.alloc().buffer();
+        try {
+            connection.transformClientbound(bytebuf, transformedBuf, CancelEncoderException::generate);
             out.add(transformedBuf.retain());
         } finally {
             transformedBuf.release();
         }
     }
 
-    private boolean handleCompressionOrder(final ChannelHandlerContext ctx, final ByteBuf buf) throws Exception {
+    /**
+     * Transforms an already compressed packet, only recompressing it if its contents have changed.
+     */
+    private void encodeCompressed(final ChannelHandlerContext ctx, final ByteBuf bytebuf, final List<Object> out) throws Exception {
+        final int compressedIndex = bytebuf.readerIndex();
+        final int dataLength = BukkitPacketCompression.readDataLength(bytebuf);
+        final ByteBuf decompressed = BukkitPacketCompression.decompress(ctx.alloc(), bytebuf, dataLength);
+        try {
+            final int packetId = peekPacketId(decompressed);
+            final ByteBuf passthroughBuf = connection.passthroughClientbound(decompressed);
+            // The id may have been rewritten in place
+            if (passthroughBuf == decompressed && peekPacketId(decompressed) == packetId) {
+                // Nothing has changed, keep the compressed packet
+                passthroughBuf.release();
+                out.add(bytebuf.readerIndex(compressedIndex).retain());
+                return;
+            }
+
+            final ByteBuf transformedBuf = passthroughBuf != null ? passthroughBuf : ctx.alloc().buffer();
+            try {
+                if (passthroughBuf == null) {
+                    connection.transformClientbound(decompressed, transformedBuf, CancelEncoderException::generate);
+                }
+
+                // Packets at or above the compression threshold have to be compressed and packets below it may not be
+                final ChannelHandler compressor = ctx.pipeline().get(BukkitChannelInitializer.MINECRAFT_COMPRESSOR);
+                final int threshold = compressor != null ? BukkitPacketCompression.compressionThreshold(compressor) : -1;
+                final boolean compress = threshold != -1
+                    ? transformedBuf.readableBytes() >= threshold
+                    // Unknown threshold, the original size is known to be above it
+                    : dataLength != 0 && transformedBuf.readableBytes() >= dataLength;
+                out.add(BukkitPacketCompression.compress(ctx.alloc(), transformedBuf, compress));
+            } finally {
+                transformedBuf.release();
+            }
+        } finally {
+            decompressed.release();
+        }
+    }
+
+    private static int peekPacketId(final ByteBuf buf) {
+        final int readerIndex = buf.readerIndex();
+        final int packetId = Type.VAR_INT.readPrimitive(buf);
+        buf.readerIndex(readerIndex);
+        return packetId;
+    }
+
+    /**
+     * Fixes the handler order if the compressor has been added after the Via encoder.
+     *
+     * @return true if the current packet has already been compressed due to the bad order
+     */
+    private boolean handleCompressionOrder(final ChannelHandlerContext ctx) {
         final ChannelPipeline pipeline = ctx.pipeline();
         final List<String> names = pipeline.names();
         final int compressorIndex = names.indexOf(BukkitChannelInitializer.MINECRAFT_COMPRESSOR);
@@ -75,14 +161,6 @@ public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf>
 
         handledCompression = true;
         if (compressorIndex > names.indexOf(BukkitChannelInitializer.VIA_ENCODER)) {
-            // Need to decompress this packet due to bad order
-            final ByteBuf decompressed = (ByteBuf) PipelineUtil.callDecode((ByteToMessageDecoder) pipeline.get(BukkitChannelInitializer.MINECRAFT_DECOMPRESSOR), ctx, buf).get(0);
-            try {
-                buf.clear().writeBytes(decompressed);
-            } finally {
-                decompressed.release();
-            }
-
             pipeline.addAfter(BukkitChannelInitializer.MINECRAFT_COMPRESSOR, BukkitChannelInitializer.VIA_ENCODER, pipeline.remove(BukkitChannelInitializer.VIA_ENCODER));
             pipeline.addAfter(BukkitChannelInitializer.MINECRAFT_DECOMPRESSOR, BukkitChannelInitializer.VIA_DECODER, pipeline.remove(BukkitChannelInitializer.VIA_DECODER));
             return true;
@@ -90,16 +168,6 @@ public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf>
         return false;
     }
 
-    private void recompress(final ChannelHandlerContext ctx, final ByteBuf buf) throws Exception {
-        final ByteBuf compressed = ctx.alloc().buffer();
-        try {
-            PipelineUtil.callEncode((MessageToByteEncoder<ByteBuf>) ctx.pipeline().get(BukkitChannelInitializer.MINECRAFT_COMPRESSOR), ctx, buf, compressed);
-            buf.clear().writeBytes(compressed);
-        } finally {
-            compressed.release();
-        }
-    }
-
     @Override
     public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) throws Exception {
         if (PipelineUtil.containsCause(cause, CancelCodecException.class)) {
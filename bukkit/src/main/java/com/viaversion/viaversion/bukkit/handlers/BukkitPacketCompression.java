@@ -0,0 +1,226 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.bukkit.handlers;
+
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandler;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * (De)compression of packets in the format of the Minecraft compressor, used when the Via encoder sits behind it.
+ * Inflaters and deflaters are pooled per event loop thread.
+ */
+final class BukkitPacketCompression {
+    private static final int MAX_DATA_LENGTH = 8 * 1024 * 1024;
+    private static final int DEFLATE_CHUNK_SIZE = 8192;
+    private static final FastThreadLocal<Inflater> INFLATER = new FastThreadLocal<Inflater>() {
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater();
+        }
+
+        @Override
+        protected void onRemoval(final Inflater inflater) {
+            inflater.end();
+        }
+    };
+    private static final FastThreadLocal<Deflater> DEFLATER = new FastThreadLocal<Deflater>() {
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Via.getConfig().getCompressionLevel());
+        }
+
+        @Override
+        protected void onRemoval(final Deflater deflater) {
+            deflater.end();
+        }
+    };
+    private static final List<String> KNOWN_COMPRESSORS = Arrays.asList("PacketCompressor", "CompressionEncoder");
+    /**
+     * Threshold field per compressor class, or null if it could not be found and the packet size has to be used instead.
+     */
+    private static final ClassValue<Field> THRESHOLD_FIELDS = new ClassValue<Field>() {
+        @Override
+        protected @Nullable Field computeValue(final Class<?> type) {
+            return findThresholdField(type);
+        }
+    };
+
+    private BukkitPacketCompression() {
+    }
+
+    /**
+     * Returns the compression threshold of the Minecraft compressor.
+     *
+     * @param compressor Minecraft compressor handler
+     * @return compression threshold, or -1 if it could not be read
+     */
+    static int compressionThreshold(final ChannelHandler compressor) {
+        final Field field = THRESHOLD_FIELDS.get(compressor.getClass());
+        if (field == null) {
+            return -1;
+        }
+
+        try {
+            return field.getInt(compressor);
+        } catch (final IllegalAccessException e) {
+            return -1;
+        }
+    }
+
+    private static @Nullable Field findThresholdField(final Class<?> clazz) {
+        Field intField = null;
+        int intFields = 0;
+        for (final Field field : clazz.getDeclaredFields()) {
+            if (field.getType() != int.class || Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            if (field.getName().equals("threshold")) {
+                return accessible(field);
+            }
+
+            intField = field;
+            intFields++;
+        }
+
+        // The threshold is the only int field of the obfuscated vanilla compressor
+        return intFields == 1 && KNOWN_COMPRESSORS.contains(clazz.getSimpleName()) ? accessible(intField) : null;
+    }
+
+    private static @Nullable Field accessible(final Field field) {
+        try {
+            field.setAccessible(true);
+            return field;
+        } catch (final RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the uncompressed length of a compressed packet, being 0 if the packet was not compressed.
+     *
+     * @param buf compressed packet
+     * @return uncompressed data length, or 0 if not compressed
+     */
+    static int readDataLength(final ByteBuf buf) {
+        return Type.VAR_INT.readPrimitive(buf);
+    }
+
+    /**
+     * Decompresses the remaining bytes of the buffer after its data length has been read.
+     *
+     * @param alloc      allocator of the output buffer
+     * @param buf        compressed packet contents
+     * @param dataLength uncompressed data length, or 0 if not compressed
+     * @return uncompressed packet, to be released by the caller
+     * @throws DataFormatException if the packet is badly compressed
+     */
+    static ByteBuf decompress(final ByteBufAllocator alloc, final ByteBuf buf, final int dataLength) throws DataFormatException {
+        if (dataLength == 0) {
+            return buf.readRetainedSlice(buf.readableBytes());
+        }
+        if (dataLength > MAX_DATA_LENGTH) {
+            throw new DataFormatException("Badly compressed packet - size of " + dataLength + " is larger than protocol maximum of " + MAX_DATA_LENGTH);
+        }
+
+        final Inflater inflater = INFLATER.get();
+        final ByteBuf output = alloc.heapBuffer(dataLength, dataLength);
+        try {
+            setInput(inflater, buf);
+            final int length = inflater.inflate(output.array(), output.arrayOffset(), dataLength);
+            if (length != dataLength || !inflater.finished()) {
+                throw new DataFormatException("Badly compressed packet - expected " + dataLength + " bytes");
+            }
+
+            output.writerIndex(dataLength);
+            buf.skipBytes(buf.readableBytes());
+            return output;
+        } catch (final Throwable t) {
+            output.release();
+            throw t;
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    /**
+     * Writes the packet in the compressed packet format.
+     *
+     * @param alloc    allocator of the output buffer
+     * @param buf      uncompressed packet
+     * @param compress whether the packet should be compressed, else it is only prefixed with a data length of 0
+     * @return packet in the compressed packet format, to be released by the caller
+     */
+    static ByteBuf compress(final ByteBufAllocator alloc, final ByteBuf buf, final boolean compress) {
+        final int dataLength = buf.readableBytes();
+        if (!compress) {
+            final ByteBuf output = alloc.buffer(dataLength + 1);
+            Type.VAR_INT.writePrimitive(output, 0);
+            output.writeBytes(buf);
+            return output;
+        }
+
+        final Deflater deflater = DEFLATER.get();
+        final ByteBuf output = alloc.heapBuffer(dataLength / 2 + 5);
+        try {
+            Type.VAR_INT.writePrimitive(output, dataLength);
+            setInput(deflater, buf);
+            deflater.finish();
+            while (!deflater.finished()) {
+                output.ensureWritable(DEFLATE_CHUNK_SIZE);
+                final int length = deflater.deflate(output.array(), output.arrayOffset() + output.writerIndex(), output.writableBytes());
+                output.writerIndex(output.writerIndex() + length);
+            }
+            buf.skipBytes(dataLength);
+            return output;
+        } catch (final Throwable t) {
+            output.release();
+            throw t;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    private static void setInput(final Inflater inflater, final ByteBuf buf) {
+        if (buf.hasArray()) {
+            inflater.setInput(buf.array(), buf.arrayOffset() + buf.readerIndex(), buf.readableBytes());
+        } else {
+            inflater.setInput(ByteBufUtil.getBytes(buf));
+        }
+    }
+
+    private static void setInput(final Deflater deflater, final ByteBuf buf) {
+        if (buf.hasArray()) {
+            deflater.setInput(buf.array(), buf.arrayOffset() + buf.readerIndex(), buf.readableBytes());
+        } else {
+            deflater.setInput(ByteBufUtil.getBytes(buf));
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class BukkitViaConfig extends AbstractViaConfig {
     private String blockConnectionMethod;
     private boolean armorToggleFix;
     private boolean registerUserConnectionOnJoin;
+    private int compressionLevel;
 
     public BukkitViaConfig() {
         super(new File(((Plugin) Via.getPlatform()).getDataFolder(), "config.yml"));
@@ -48,6 +49,7 @@ public class BukkitViaConfig extends AbstractViaConfig {
         hitboxFix1_14 = getBoolean("change-1_14-hitbox", false);
         blockConnectionMethod = getString("blockconnection-method", "packet");
         armorToggleFix = getBoolean("armor-toggle-fix", true);
+        compressionLevel = Math.max(-1, Math.min(9, getInt("compression-level", -1)));
     }
 
     @Override
@@ -84,6 +86,11 @@ public class BukkitViaConfig extends AbstractViaConfig {
         return armorToggleFix;
     }
 
+    @Override
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
     @Override
     public List<String> getUnsupportedOptions() {
         return UNSUPPORTED;
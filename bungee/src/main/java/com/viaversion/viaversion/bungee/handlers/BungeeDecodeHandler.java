@@ -18,6 +18,7 @@
 package com.viaversion.viaversion.bungee.handlers;
 
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelDecoderException;
 import io.netty.buffer.ByteBuf;
@@ -40,15 +41,26 @@ public class BungeeDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
             throw CancelDecoderException.generate(null);
         }
 
+        if (info instanceof UserConnectionImpl && ((UserConnectionImpl) info).holdServerbound(bytebuf)) {
+            // Decoded once the connection resumes
+            return;
+        }
+
         if (!info.checkServerboundPacket()) throw CancelDecoderException.generate(null);
         if (!info.shouldTransformPacket()) {
             out.add(bytebuf.retain());
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
+        ByteBuf passthroughBuf = info.passthroughServerbound(bytebuf);
+        if (passthroughBuf != null) {
+            out.add(passthroughBuf);
+            return;
+        }
+
+        ByteBuf transformedBuf = ctx.alloc().buffer();
         try {
-            info.transformServerbound(transformedBuf, CancelDecoderException::generate);
+            info.transformServerbound(bytebuf, transformedBuf, CancelDecoderException::generate);
             out.add(transformedBuf.retain());
         } finally {
             transformedBuf.release();
@@ -48,13 +48,24 @@ public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            boolean needsCompress = handleCompressionOrder(ctx, transformedBuf);
-            info.transformClientbound(transformedBuf, CancelEncoderException::generate);
+        boolean needsCompress = !handledCompression && isCompressionMisordered(ctx);
+        if (!needsCompress) {
+            ByteBuf passthroughBuf = info.passthroughClientbound(bytebuf);
+            if (passthroughBuf != null) {
+                out.add(passthroughBuf);
+                return;
+            }
+        }
 
+        ByteBuf transformedBuf = ctx.alloc().buffer();
+        try {
             if (needsCompress) {
+                transformedBuf.writeBytes(bytebuf);
+                handleCompressionOrder(ctx, transformedBuf);
+                info.transformClientbound(transformedBuf, CancelEncoderException::generate);
                 recompress(ctx, transformedBuf);
+            } else {
+                info.transformClientbound(bytebuf, transformedBuf, CancelEncoderException::generate);
             }
 
             out.add(transformedBuf.retain());
@@ -63,32 +74,31 @@ public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
         }
     }
 
-    private boolean handleCompressionOrder(ChannelHandlerContext ctx, ByteBuf buf) {
-        boolean needsCompress = false;
-        if (!handledCompression && ctx.pipeline().names().indexOf("compress") > ctx.pipeline().names().indexOf("via-encoder")) {
-            // Need to decompress this packet due to bad order
-            ByteBuf decompressed = BungeePipelineUtil.decompress(ctx, buf);
+    private boolean isCompressionMisordered(ChannelHandlerContext ctx) {
+        return ctx.pipeline().names().indexOf("compress") > ctx.pipeline().names().indexOf("via-encoder");
+    }
 
-            // Ensure the buffer wasn't reused
-            if (buf != decompressed) {
-                try {
-                    buf.clear().writeBytes(decompressed);
-                } finally {
-                    decompressed.release();
-                }
-            }
+    private void handleCompressionOrder(ChannelHandlerContext ctx, ByteBuf buf) {
+        // Need to decompress this packet due to bad order
+        ByteBuf decompressed = BungeePipelineUtil.decompress(ctx, buf);
 
-            // Reorder the pipeline
-            ChannelHandler decoder = ctx.pipeline().get("via-decoder");
-            ChannelHandler encoder = ctx.pipeline().get("via-encoder");
-            ctx.pipeline().remove(decoder);
-            ctx.pipeline().remove(encoder);
-            ctx.pipeline().addAfter("decompress", "via-decoder", decoder);
-            ctx.pipeline().addAfter("compress", "via-encoder", encoder);
-            needsCompress = true;
-            handledCompression = true;
+        // Ensure the buffer wasn't reused
+        if (buf != decompressed) {
+            try {
+                buf.clear().writeBytes(decompressed);
+            } finally {
+                decompressed.release();
+            }
         }
-        return needsCompress;
+
+        // Reorder the pipeline
+        ChannelHandler decoder = ctx.pipeline().get("via-decoder");
+        ChannelHandler encoder = ctx.pipeline().get("via-encoder");
+        ctx.pipeline().remove(decoder);
+        ctx.pipeline().remove(encoder);
+        ctx.pipeline().addAfter("decompress", "via-decoder", decoder);
+        ctx.pipeline().addAfter("compress", "via-encoder", encoder);
+        handledCompression = true;
     }
 
     private void recompress(ChannelHandlerContext ctx, ByteBuf buf) {
@@ -28,7 +28,7 @@ import java.util.List;
 import java.util.Map;
 
 public class BungeeViaConfig extends AbstractViaConfig {
-    private static final List<String> UNSUPPORTED = Arrays.asList("nms-player-ticking", "item-cache", "quick-move-action-fix", "velocity-ping-interval", "velocity-ping-save", "velocity-servers", "blockconnection-method", "change-1_9-hitbox", "change-1_14-hitbox");
+    private static final List<String> UNSUPPORTED = Arrays.asList("nms-player-ticking", "item-cache", "quick-move-action-fix", "velocity-ping-interval", "velocity-ping-save", "velocity-servers", "blockconnection-method", "change-1_9-hitbox", "change-1_14-hitbox", "compression-level", "chunk-translation-threads", "chunk-translation-queue-size");
     private int bungeePingInterval;
     private boolean bungeePingSave;
     private Map<String, Integer> bungeeServerProtocols;
@@ -22,7 +22,6 @@ import com.viaversion.viaversion.api.ViaManager;
 import com.viaversion.viaversion.api.configuration.ConfigurationProvider;
 import com.viaversion.viaversion.api.connection.ConnectionManager;
 import com.viaversion.viaversion.api.debug.DebugHandler;
-import com.viaversion.viaversion.api.platform.PlatformTask;
 import com.viaversion.viaversion.api.platform.UnsupportedSoftware;
 import com.viaversion.viaversion.api.platform.ViaInjector;
 import com.viaversion.viaversion.api.platform.ViaPlatform;
@@ -36,9 +35,11 @@ import com.viaversion.viaversion.commands.ViaCommandHandler;
 import com.viaversion.viaversion.configuration.ConfigurationProviderImpl;
 import com.viaversion.viaversion.connection.ConnectionManagerImpl;
 import com.viaversion.viaversion.debug.DebugHandlerImpl;
+import com.viaversion.viaversion.handlers.AsyncTransformPool;
 import com.viaversion.viaversion.protocol.ProtocolManagerImpl;
 import com.viaversion.viaversion.protocol.ServerProtocolVersionRange;
 import com.viaversion.viaversion.protocol.ServerProtocolVersionSingleton;
+import com.viaversion.viaversion.protocol.TranslatedPacketCache;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.TabCompleteThread;
 import com.viaversion.viaversion.protocols.protocol1_9to1_8.ViaIdleThread;
 import com.viaversion.viaversion.scheduler.TaskScheduler;
@@ -52,6 +53,7 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class ViaManagerImpl implements ViaManager {
     private final ProtocolManagerImpl protocolManager = new ProtocolManagerImpl();
@@ -66,7 +68,8 @@ public class ViaManagerImpl implements ViaManager {
     private final ViaPlatformLoader loader;
     private final Set<String> subPlatforms = new HashSet<>();
     private List<Runnable> enableListeners = new ArrayList<>();
-    private PlatformTask<?> mappingLoadingTask;
+    private TranslatedPacketCache packetCache;
+    private AsyncTransformPool asyncTransformPool;
     private boolean initialized;
 
     public ViaManagerImpl(ViaPlatform<?> platform, ViaInjector injector, ViaCommandHandler commandHandler, ViaPlatformLoader loader) {
@@ -83,6 +86,16 @@ public class ViaManagerImpl implements ViaManager {
     public void init() {
         configurationProvider.register(platform.getConf());
 
+        final int packetCacheSize = platform.getConf().getPacketCacheSize();
+        if (packetCacheSize > 0) {
+            packetCache = new TranslatedPacketCache(packetCacheSize * 1024L * 1024L);
+        }
+
+        final int chunkTranslationThreads = platform.getConf().getChunkTranslationThreads();
+        if (chunkTranslationThreads > 0) {
+            asyncTransformPool = new AsyncTransformPool(chunkTranslationThreads, platform.getConf().getChunkTranslationQueueSize());
+        }
+
         if (System.getProperty("ViaVersion") != null) {
             // Reload?
             platform.onReload();
@@ -160,12 +173,7 @@ public class ViaManagerImpl implements ViaManager {
         // Load Platform
         loader.load();
         // Common tasks
-        mappingLoadingTask = Via.getPlatform().runRepeatingAsync(() -> {
-            if (protocolManager.checkForMappingCompletion() && mappingLoadingTask != null) {
-                mappingLoadingTask.cancel();
-                mappingLoadingTask = null;
-            }
-        }, 10L);
+        protocolManager.shutdownLoaderExecutorOnCompletion();
 
         int serverProtocolVersion = protocolManager.getServerProtocolVersion().lowestSupportedVersion();
         if (serverProtocolVersion < ProtocolVersion.v1_9.getVersion()) {
@@ -211,6 +219,9 @@ public class ViaManagerImpl implements ViaManager {
 
         loader.unload();
         scheduler.shutdown();
+        if (asyncTransformPool != null) {
+            asyncTransformPool.shutdown();
+        }
     }
 
     private void checkJavaVersion() { // Stolen from Paper
@@ -288,6 +299,24 @@ public class ViaManagerImpl implements ViaManager {
         return debugHandler;
     }
 
+    /**
+     * Returns the packet cache shared between all connections if enabled in the config.
+     *
+     * @return shared packet cache, or null if disabled
+     */
+    public @Nullable TranslatedPacketCache packetCache() {
+        return packetCache;
+    }
+
+    /**
+     * Returns the worker pool for chunk transformations if enabled in the config.
+     *
+     * @return chunk transformation pool, or null if chunks are transformed on the event loop
+     */
+    public @Nullable AsyncTransformPool asyncTransformPool() {
+        return asyncTransformPool;
+    }
+
     @Override
     public ViaInjector getInjector() {
         return injector;
@@ -89,6 +89,10 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
     private JsonElement resourcePack1_17PromptMessage;
     private WorldIdentifiers map1_16WorldNames;
     private boolean cache1_17Light;
+    private int packetCacheSize;
+    private int chunkTranslationThreads;
+    private int chunkTranslationQueueSize;
+    private boolean lazyMappingLoading;
 
     protected AbstractViaConfig(final File configFile) {
         super(configFile);
@@ -157,6 +161,10 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
                 worlds.getOrDefault("nether", WorldIdentifiers.NETHER_DEFAULT),
                 worlds.getOrDefault("end", WorldIdentifiers.END_DEFAULT));
         cache1_17Light = getBoolean("cache-1_17-light", true);
+        packetCacheSize = Math.max(0, getInt("packet-cache-size", 0));
+        chunkTranslationThreads = Math.max(0, getInt("chunk-translation-threads", 0));
+        chunkTranslationQueueSize = Math.max(1, getInt("chunk-translation-queue-size", 256));
+        lazyMappingLoading = getBoolean("lazy-mapping-loading", false);
     }
 
     private BlockedProtocolVersions loadBlockedProtocolVersions() {
@@ -530,4 +538,29 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
     public boolean isArmorToggleFix() {
         return false;
     }
+
+    @Override
+    public int getCompressionLevel() {
+        return -1;
+    }
+
+    @Override
+    public int getPacketCacheSize() {
+        return packetCacheSize;
+    }
+
+    @Override
+    public int getChunkTranslationThreads() {
+        return chunkTranslationThreads;
+    }
+
+    @Override
+    public int getChunkTranslationQueueSize() {
+        return chunkTranslationQueueSize;
+    }
+
+    @Override
+    public boolean isLazyMappingLoading() {
+        return lazyMappingLoading;
+    }
 }
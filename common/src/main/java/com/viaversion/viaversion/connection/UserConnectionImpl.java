@@ -18,18 +18,24 @@
 package com.viaversion.viaversion.connection;
 
 import com.google.common.cache.CacheBuilder;
+import com.viaversion.viaversion.ViaManagerImpl;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.ProtocolInfo;
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.entity.EntityTracker;
 import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.Direction;
 import com.viaversion.viaversion.api.protocol.packet.PacketTracker;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.exception.CancelEncoderException;
 import com.viaversion.viaversion.exception.CancelException;
+import com.viaversion.viaversion.handlers.AsyncTransformWriter;
+import com.viaversion.viaversion.protocol.ProtocolPipelineImpl;
+import com.viaversion.viaversion.protocol.TranslatedPacketCache;
 import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
 import com.viaversion.viaversion.util.ChatColorUtil;
 import com.viaversion.viaversion.util.PipelineUtil;
@@ -37,10 +43,15 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelPromise;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -64,6 +75,25 @@ public class UserConnectionImpl implements UserConnection {
     private boolean active = true;
     private boolean pendingDisconnect;
     private boolean packetLimiterEnabled = true;
+    /**
+     * Depth of the full packet transformations currently running on the event loop.
+     * Packets sent to the encoder while it's non-zero are only written, and flushed together once it's back to zero.
+     */
+    private int batchDepth;
+    private int batchedWrites;
+    /**
+     * Worker thread currently transforming a packet of this connection, see {@link #transformClientboundOffThread(ByteBuf, ByteBuf, List)}.
+     */
+    private volatile Thread offThreadTransformer;
+    private List<ByteBuf> offThreadSentPackets;
+    private AsyncTransformWriter asyncTransformWriter;
+    /**
+     * Number of reasons serverbound packets are currently held back by the decoder for, see {@link #pauseServerbound()}.
+     */
+    private int serverboundPauses;
+    private final Queue<ByteBuf> heldServerboundPackets = new ArrayDeque<>();
+    private boolean releasingServerbound;
+    private boolean releaseHeldOnClose;
 
     /**
      * Creates an UserConnection. When it's a client-side connection, some method behaviors are modified.
@@ -167,7 +197,7 @@ public class UserConnectionImpl implements UserConnection {
             act = () -> getChannel().pipeline()
                     .context(Via.getManager().getInjector().getDecoderName()).fireChannelRead(packet);
         } else {
-            act = () -> channel.pipeline().context(Via.getManager().getInjector().getEncoderName()).writeAndFlush(packet);
+            act = () -> writeToEncoder(packet);
         }
         if (currentThread) {
             act.run();
@@ -181,6 +211,53 @@ public class UserConnectionImpl implements UserConnection {
         }
     }
 
+    private void writeToEncoder(final ByteBuf packet) {
+        if (offThreadTransformer == Thread.currentThread()) {
+            // Written before the transformed packet once it's done
+            offThreadSentPackets.add(packet);
+            return;
+        }
+        writeToEncoder(packet, channel.newPromise());
+    }
+
+    private ChannelFuture writeToEncoder(final ByteBuf packet, final ChannelPromise promise) {
+        if (!channel.eventLoop().inEventLoop()) {
+            // Keep the order with the writes held back by the async transform writer
+            try {
+                channel.eventLoop().execute(() -> writeToEncoder(packet, promise));
+            } catch (Throwable e) {
+                packet.release(); // Couldn't schedule
+                promise.tryFailure(e);
+            }
+            return promise;
+        }
+
+        if (asyncTransformWriter != null && asyncTransformWriter.writeRaw(packet, promise)) {
+            // Written once the running transformation is done
+            return promise;
+        }
+
+        final ChannelHandlerContext context = channel.pipeline().context(Via.getManager().getInjector().getEncoderName());
+        if (batchDepth != 0) {
+            // Flushed once the current transformation is done
+            context.write(packet, promise);
+            batchedWrites++;
+        } else {
+            context.writeAndFlush(packet, promise);
+        }
+        return promise;
+    }
+
+    private void flushBatchedWrites() {
+        if (batchedWrites == 0) {
+            return;
+        }
+
+        packetTracker.incrementSavedFlushes(batchedWrites - 1);
+        batchedWrites = 0;
+        channel.pipeline().context(Via.getManager().getInjector().getEncoderName()).flush();
+    }
+
     @Override
     public ChannelFuture sendRawPacketFuture(final ByteBuf packet) {
         if (clientSide) {
@@ -188,7 +265,7 @@ public class UserConnectionImpl implements UserConnection {
             getChannel().pipeline().context(Via.getManager().getInjector().getDecoderName()).fireChannelRead(packet);
             return getChannel().newSucceededFuture();
         } else {
-            return channel.pipeline().context(Via.getManager().getInjector().getEncoderName()).writeAndFlush(packet);
+            return writeToEncoder(packet, channel.newPromise());
         }
     }
 
@@ -269,8 +346,7 @@ public class UserConnectionImpl implements UserConnection {
     }
 
     private void sendRawPacketToServerClientSide(final ByteBuf packet, boolean currentThread) {
-        Runnable act = () -> getChannel().pipeline()
-                .context(Via.getManager().getInjector().getEncoderName()).writeAndFlush(packet);
+        Runnable act = () -> writeToEncoder(packet);
         if (currentThread) {
             act.run();
         } else {
@@ -313,34 +389,304 @@ public class UserConnectionImpl implements UserConnection {
         transform(buf, Direction.SERVERBOUND, cancelSupplier);
     }
 
+    @Override
+    public void transformClientbound(ByteBuf buf, ByteBuf output, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        transform(buf, output, Direction.CLIENTBOUND, cancelSupplier);
+    }
+
+    @Override
+    public void transformServerbound(ByteBuf buf, ByteBuf output, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        transform(buf, output, Direction.SERVERBOUND, cancelSupplier);
+    }
+
     private void transform(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
         if (!buf.isReadable()) return;
 
+        int readerIndex = buf.readerIndex();
         int id = Type.VAR_INT.readPrimitive(buf);
         if (id == PacketWrapper.PASSTHROUGH_ID) {
-            if (!passthroughTokens.remove(Type.UUID.read(buf))) {
-                throw new IllegalArgumentException("Invalid token");
-            }
+            checkPassthroughToken(buf);
             return;
         }
 
-        PacketWrapper wrapper = new PacketWrapperImpl(id, buf, this);
-        State state = protocolInfo.getState(direction);
-        try {
-            protocolInfo.getPipeline().transform(direction, state, wrapper);
-        } catch (CancelException ex) {
-            throw cancelSupplier.apply(ex);
+        int passthroughId = passthroughPacketId(direction, id);
+        if (passthroughId != -1 && buf.readerIndex() - readerIndex == 1 && (passthroughId & ~0x7F) == 0) {
+            // Only the id changes, and it still fits into a single byte
+            buf.setByte(readerIndex, passthroughId);
+            buf.readerIndex(readerIndex);
+            return;
         }
 
         ByteBuf transformed = buf.alloc().buffer();
         try {
-            wrapper.writeToBuffer(transformed);
+            transform(buf, transformed, id, direction, cancelSupplier);
             buf.clear().writeBytes(transformed);
         } finally {
             transformed.release();
         }
     }
 
+    private void transform(ByteBuf buf, ByteBuf output, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        if (!buf.isReadable()) return;
+
+        int id = Type.VAR_INT.readPrimitive(buf);
+        if (id == PacketWrapper.PASSTHROUGH_ID) {
+            checkPassthroughToken(buf);
+            output.writeBytes(buf);
+            return;
+        }
+
+        int passthroughId = passthroughPacketId(direction, id);
+        if (passthroughId != -1) {
+            Type.VAR_INT.writePrimitive(output, passthroughId);
+            output.writeBytes(buf);
+            return;
+        }
+
+        transform(buf, output, id, direction, cancelSupplier);
+    }
+
+    private void transform(ByteBuf buf, ByteBuf output, int id, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        // Batch additional packets sent during the transformation into a single flush
+        boolean batch = channel != null && channel.eventLoop().inEventLoop();
+        if (batch) {
+            batchDepth++;
+        }
+
+        try {
+            State state = protocolInfo.getState(direction);
+            TranslatedPacketCache packetCache = packetCache();
+            TranslatedPacketCache.Key cacheKey = null;
+            if (packetCache != null && protocolInfo.getPipeline() instanceof ProtocolPipelineImpl) {
+                cacheKey = ((ProtocolPipelineImpl) protocolInfo.getPipeline()).packetCacheKey(direction, state, id, buf);
+                if (cacheKey != null) {
+                    byte[] cached = packetCache.get(cacheKey);
+                    if (cached != null) {
+                        output.writeBytes(cached);
+                        return;
+                    }
+
+                    // The lookup key only references the buffer that is about to be read
+                    cacheKey = cacheKey.copy();
+                }
+            }
+
+            int outputIndex = output.writerIndex();
+            PacketWrapper wrapper = new PacketWrapperImpl(id, buf, this);
+            try {
+                protocolInfo.getPipeline().transform(direction, state, wrapper);
+            } catch (CancelException ex) {
+                throw cancelSupplier.apply(ex);
+            }
+
+            wrapper.writeToBuffer(output);
+            if (cacheKey != null) {
+                packetCache.put(cacheKey, output, outputIndex);
+            }
+        } finally {
+            if (batch && --batchDepth == 0) {
+                flushBatchedWrites();
+            }
+        }
+    }
+
+    private @Nullable TranslatedPacketCache packetCache() {
+        if (Via.getManager().debugHandler().enabled() || !(Via.getManager() instanceof ViaManagerImpl)) {
+            // Let the pipeline log the packet
+            return null;
+        }
+        return ((ViaManagerImpl) Via.getManager()).packetCache();
+    }
+
+    /**
+     * Returns whether the given clientbound packet is a heavy one that may be transformed on a worker thread.
+     *
+     * @param buf packet buffer, not modified
+     * @return whether the packet may be transformed off the event loop
+     */
+    public boolean isOffThreadClientboundPacket(ByteBuf buf) {
+        if (clientSide || !buf.isReadable() || Via.getManager().debugHandler().enabled()
+                || !(protocolInfo.getPipeline() instanceof ProtocolPipelineImpl)) {
+            return false;
+        }
+
+        int readerIndex = buf.readerIndex();
+        int id = Type.VAR_INT.readPrimitive(buf);
+        buf.readerIndex(readerIndex);
+        if (id == PacketWrapper.PASSTHROUGH_ID || passthroughPacketId(Direction.CLIENTBOUND, id) != -1) {
+            return false;
+        }
+        return ((ProtocolPipelineImpl) protocolInfo.getPipeline()).isChunkPacket(protocolInfo.getState(Direction.CLIENTBOUND), id);
+    }
+
+    /**
+     * Transforms a clientbound packet on the calling worker thread. Packets sent during the transformation
+     * are added to the given list instead of being written, as they have to be written before the transformed packet.
+     * <p>
+     * No other clientbound packet of this connection may be transformed in the meantime, and serverbound packets
+     * have to be held back with {@link #pauseServerbound()} until the transformation is done.
+     *
+     * @param buf         packet buffer
+     * @param output      output buffer
+     * @param sentPackets list to add sent packets to
+     * @throws Exception if the transformation fails or the packet is cancelled
+     */
+    public void transformClientboundOffThread(ByteBuf buf, ByteBuf output, List<ByteBuf> sentPackets) throws Exception {
+        offThreadSentPackets = sentPackets;
+        offThreadTransformer = Thread.currentThread();
+        try {
+            int id = Type.VAR_INT.readPrimitive(buf);
+            transform(buf, output, id, Direction.CLIENTBOUND, CancelEncoderException::generate);
+        } finally {
+            offThreadTransformer = null;
+            offThreadSentPackets = null;
+        }
+    }
+
+    /**
+     * Sets the writer transforming clientbound packets of this connection off-thread, so that raw packets
+     * sent to the encoder are held back together with the writer's other writes.
+     *
+     * @param asyncTransformWriter async transform writer of the encoder
+     */
+    public void setAsyncTransformWriter(AsyncTransformWriter asyncTransformWriter) {
+        this.asyncTransformWriter = asyncTransformWriter;
+    }
+
+    /**
+     * Holds back serverbound packets in the decoder until {@link #resumeServerbound()} has been called as often as this.
+     * Must be called on the event loop.
+     */
+    public void pauseServerbound() {
+        serverboundPauses++;
+    }
+
+    /**
+     * Decodes the held back serverbound packets in their original order once nothing pauses them anymore.
+     * Must be called on the event loop.
+     */
+    public void resumeServerbound() {
+        if (--serverboundPauses != 0 || heldServerboundPackets.isEmpty()) {
+            return;
+        }
+
+        ChannelHandlerContext ctx = channel.pipeline().context(Via.getManager().getInjector().getDecoderName());
+        if (ctx == null) {
+            releaseHeldServerbound();
+            return;
+        }
+
+        releasingServerbound = true;
+        try {
+            ByteBuf packet;
+            while (serverboundPauses == 0 && (packet = heldServerboundPackets.poll()) != null) {
+                try {
+                    ((ChannelInboundHandler) ctx.handler()).channelRead(ctx, packet);
+                } catch (Throwable e) {
+                    ctx.fireExceptionCaught(e);
+                }
+            }
+        } finally {
+            releasingServerbound = false;
+        }
+        ctx.fireChannelReadComplete();
+    }
+
+    /**
+     * Takes over the serverbound packet to decode it again later if serverbound packets are currently held back,
+     * see {@link #pauseServerbound()}. To be called by the decoder before anything else.
+     *
+     * @param buf packet buffer, fully consumed if held back
+     * @return true if the packet has been held back and must not be decoded now
+     */
+    public boolean holdServerbound(ByteBuf buf) {
+        if (clientSide || (serverboundPauses == 0 && (releasingServerbound || heldServerboundPackets.isEmpty()))) {
+            return false;
+        }
+
+        if (!releaseHeldOnClose) {
+            releaseHeldOnClose = true;
+            channel.closeFuture().addListener(future -> releaseHeldServerbound());
+        }
+        heldServerboundPackets.add(buf.readRetainedSlice(buf.readableBytes()));
+        return true;
+    }
+
+    private void releaseHeldServerbound() {
+        ByteBuf packet;
+        while ((packet = heldServerboundPackets.poll()) != null) {
+            packet.release();
+        }
+    }
+
+    private void checkPassthroughToken(ByteBuf buf) throws Exception {
+        if (!passthroughTokens.remove(Type.UUID.read(buf))) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+    }
+
+    @Override
+    public @Nullable ByteBuf passthroughClientbound(ByteBuf buf) {
+        return passthrough(buf, Direction.CLIENTBOUND);
+    }
+
+    @Override
+    public @Nullable ByteBuf passthroughServerbound(ByteBuf buf) {
+        return passthrough(buf, Direction.SERVERBOUND);
+    }
+
+    private @Nullable ByteBuf passthrough(ByteBuf buf, Direction direction) {
+        if (!buf.isReadable()) return null;
+
+        int readerIndex = buf.readerIndex();
+        int id = Type.VAR_INT.readPrimitive(buf);
+        int idLength = buf.readerIndex() - readerIndex;
+        buf.readerIndex(readerIndex);
+
+        int passthroughId = passthroughPacketId(direction, id);
+        if (passthroughId == -1) {
+            return null;
+        } else if (passthroughId == id) {
+            return buf.retain();
+        }
+
+        if (varIntLength(passthroughId) == idLength) {
+            // Rewrite the id in place, keeping the buffer contiguous for native compressors
+            int writerIndex = buf.writerIndex();
+            buf.writerIndex(readerIndex);
+            Type.VAR_INT.writePrimitive(buf, passthroughId);
+            buf.writerIndex(writerIndex);
+            return buf.retain();
+        }
+
+        ByteBuf output = buf.alloc().buffer(buf.readableBytes() + 5);
+        Type.VAR_INT.writePrimitive(output, passthroughId);
+        output.writeBytes(buf, readerIndex + idLength, buf.readableBytes() - idLength);
+        return output;
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private int passthroughPacketId(Direction direction, int id) {
+        if (Via.getManager().debugHandler().enabled()) {
+            // Let the pipeline log the packet
+            return -1;
+        }
+        ProtocolPipeline pipeline = protocolInfo.getPipeline();
+        int passthroughId = pipeline.passthroughPacketId(direction, protocolInfo.getState(direction), id);
+        if (passthroughId == -1 || !pipeline.allowsPassthrough(this, direction)) {
+            return -1;
+        }
+        return passthroughId;
+    }
+
     @Override
     public long getId() {
         return id;
@@ -26,13 +26,20 @@ public class DumpTemplate {
     private final JsonObject platformDump;
     private final JsonObject injectionDump;
     private final JsonObject playerSample;
+    private final JsonObject packetCache;
+    private final JsonObject chunkTranslation;
+    private final JsonObject mappings;
 
-    public DumpTemplate(VersionInfo versionInfo, Map<String, Object> configuration, JsonObject platformDump, JsonObject injectionDump, JsonObject playerSample) {
+    public DumpTemplate(VersionInfo versionInfo, Map<String, Object> configuration, JsonObject platformDump, JsonObject injectionDump,
+                        JsonObject playerSample, JsonObject packetCache, JsonObject chunkTranslation, JsonObject mappings) {
         this.versionInfo = versionInfo;
         this.configuration = configuration;
         this.platformDump = platformDump;
         this.injectionDump = injectionDump;
         this.playerSample = playerSample;
+        this.packetCache = packetCache;
+        this.chunkTranslation = chunkTranslation;
+        this.mappings = mappings;
     }
 
     public VersionInfo getVersionInfo() {
@@ -54,4 +61,16 @@ public class DumpTemplate {
     public JsonObject getPlayerSample() {
         return playerSample;
     }
+
+    public JsonObject getPacketCache() {
+        return packetCache;
+    }
+
+    public JsonObject getChunkTranslation() {
+        return chunkTranslation;
+    }
+
+    public JsonObject getMappings() {
+        return mappings;
+    }
 }
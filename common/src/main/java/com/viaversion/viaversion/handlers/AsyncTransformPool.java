@@ -0,0 +1,102 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.handlers;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonObject;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded worker pool for heavy packet transformations, such as chunk conversions, to keep them off the event loops.
+ * Tasks are rejected instead of queued once the queue is full, in which case the packet has to be transformed inline.
+ */
+public final class AsyncTransformPool {
+    private final ThreadPoolExecutor executor;
+    private final int queueSize;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public AsyncTransformPool(final int threads, final int queueSize) {
+        this.queueSize = queueSize;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("Via Chunk Worker %d").setDaemon(true).build(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Submits the given task if the queue has space left.
+     *
+     * @param task task to run on a worker thread
+     * @return false if the pool is saturated and the work has to be done inline
+     */
+    public boolean trySubmit(final Runnable task) {
+        final long submitTime = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    recordLatency(System.nanoTime() - submitTime);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+
+        submitted.increment();
+        return true;
+    }
+
+    private void recordLatency(final long latencyNanos) {
+        completed.increment();
+        totalLatencyNanos.add(latencyNanos);
+        long max;
+        while (latencyNanos > (max = maxLatencyNanos.get()) && !maxLatencyNanos.compareAndSet(max, latencyNanos)) {
+            // Retry
+        }
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public JsonObject dump() {
+        final long completedTasks = completed.sum();
+        final JsonObject object = new JsonObject();
+        object.addProperty("threads", executor.getCorePoolSize());
+        object.addProperty("queueSize", queueSize);
+        object.addProperty("queueDepth", queueDepth());
+        object.addProperty("submitted", submitted.sum());
+        object.addProperty("inlineFallbacks", rejected.sum());
+        object.addProperty("averageLatencyMicros", completedTasks != 0 ? totalLatencyNanos.sum() / completedTasks / 1000 : 0);
+        object.addProperty("maxLatencyMicros", maxLatencyNanos.get() / 1000);
+        return object;
+    }
+}
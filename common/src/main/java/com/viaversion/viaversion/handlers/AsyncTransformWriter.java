@@ -0,0 +1,286 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.handlers;
+
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.exception.CancelCodecException;
+import com.viaversion.viaversion.exception.CancelEncoderException;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.EncoderException;
+import io.netty.util.ReferenceCountUtil;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Hands heavy clientbound transformations of a connection to the {@link AsyncTransformPool}, holding back
+ * all later writes and flushes of the encoder until the transformed packet has been written.
+ * <p>
+ * Apart from the transformation itself, everything runs on the connection's event loop. Serverbound packets of the
+ * connection are held back by the decoder until the transformation is done, so they are never transformed concurrently.
+ */
+public final class AsyncTransformWriter {
+    private final Queue<PendingWrite> pendingWrites = new ArrayDeque<>();
+    private final UserConnectionImpl connection;
+    private final AsyncTransformPool pool;
+    private boolean transforming;
+    private boolean draining;
+    private boolean flushRequested;
+    private boolean released;
+
+    private AsyncTransformWriter(final UserConnectionImpl connection, final AsyncTransformPool pool) {
+        this.connection = connection;
+        this.pool = pool;
+        connection.setAsyncTransformWriter(this);
+    }
+
+    /**
+     * Returns a writer for the given connection if off-thread transformation is enabled.
+     *
+     * @param connection user connection of the encoder
+     * @return async writer, or null if packets are always transformed inline
+     */
+    public static @Nullable AsyncTransformWriter create(final UserConnection connection) {
+        if (!(connection instanceof UserConnectionImpl) || connection.isClientSide() || !(Via.getManager() instanceof ViaManagerImpl)) {
+            return null;
+        }
+
+        final AsyncTransformPool pool = ((ViaManagerImpl) Via.getManager()).asyncTransformPool();
+        return pool != null ? new AsyncTransformWriter((UserConnectionImpl) connection, pool) : null;
+    }
+
+    /**
+     * Takes over the given write if it has to wait for a running transformation or is transformed off-thread itself.
+     *
+     * @param ctx     encoder context
+     * @param msg     message to write
+     * @param promise write promise
+     * @param encoder write method of the encoder, used to write held back messages
+     * @return false if the encoder has to write the message as usual
+     */
+    public boolean write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise, final EncoderWrite encoder) {
+        if (transforming || (!draining && !pendingWrites.isEmpty())) {
+            pendingWrites.add(new PendingWrite(msg, promise, false));
+            return true;
+        }
+
+        if (!(msg instanceof ByteBuf) || !connection.shouldTransformPacket()
+                || !connection.isOffThreadClientboundPacket((ByteBuf) msg)) {
+            return false;
+        }
+
+        if (!connection.checkClientboundPacket()) {
+            ((ByteBuf) msg).release();
+            promise.tryFailure(CancelEncoderException.generate(null));
+            return true;
+        }
+
+        final ByteBuf buf = (ByteBuf) msg;
+        transforming = true;
+        if (!pool.trySubmit(() -> transform(ctx, buf, promise, encoder))) {
+            // Backpressure, transform inline instead
+            transforming = false;
+            transformInline(ctx, buf, promise);
+            return true;
+        }
+
+        // Serverbound packets may access the same storages, so they wait for the transformation
+        connection.pauseServerbound();
+        return true;
+    }
+
+    /**
+     * Holds back an already transformed packet written past the encoder if writes are waiting for a transformation,
+     * so that it keeps its order with them.
+     *
+     * @param packet  transformed packet
+     * @param promise write promise
+     * @return false if the packet can be written right away
+     */
+    public boolean writeRaw(final ByteBuf packet, final ChannelPromise promise) {
+        if (released) {
+            packet.release();
+            promise.tryFailure(new ClosedChannelException());
+            return true;
+        }
+        if (!transforming && (draining || pendingWrites.isEmpty())) {
+            return false;
+        }
+
+        pendingWrites.add(new PendingWrite(packet, promise, true));
+        flushRequested = true;
+        return true;
+    }
+
+    /**
+     * Releases all held back writes and fails their promises, to be called once the encoder has been removed
+     * together with its channel. A transformation still running is released once done.
+     */
+    public void release() {
+        released = true;
+        PendingWrite pendingWrite;
+        while ((pendingWrite = pendingWrites.poll()) != null) {
+            ReferenceCountUtil.release(pendingWrite.msg);
+            pendingWrite.promise.tryFailure(new ClosedChannelException());
+        }
+        flushRequested = false;
+    }
+
+    /**
+     * Holds back the flush if writes are still waiting for a transformation.
+     *
+     * @param ctx encoder context
+     * @return false if the encoder has to flush as usual
+     */
+    public boolean flush(final ChannelHandlerContext ctx) {
+        if (transforming || !pendingWrites.isEmpty()) {
+            flushRequested = true;
+            return true;
+        }
+        return false;
+    }
+
+    private void transformInline(final ChannelHandlerContext ctx, final ByteBuf buf, final ChannelPromise promise) {
+        final ByteBuf output = ctx.alloc().buffer();
+        try {
+            connection.transformClientbound(buf, output, CancelEncoderException::generate);
+        } catch (final Throwable t) {
+            output.release();
+            fail(promise, t);
+            return;
+        } finally {
+            buf.release();
+        }
+        ctx.write(output, promise);
+    }
+
+    private void transform(final ChannelHandlerContext ctx, final ByteBuf buf, final ChannelPromise promise, final EncoderWrite encoder) {
+        final List<ByteBuf> sentPackets = new ArrayList<>();
+        ByteBuf output = ctx.alloc().buffer();
+        Throwable failure = null;
+        try {
+            connection.transformClientboundOffThread(buf, output, sentPackets);
+        } catch (final Throwable t) {
+            output.release();
+            output = null;
+            failure = t;
+        } finally {
+            buf.release();
+        }
+
+        final ByteBuf transformed = output;
+        final Throwable cause = failure;
+        ctx.executor().execute(() -> complete(ctx, transformed, cause, sentPackets, promise, encoder));
+    }
+
+    private void complete(final ChannelHandlerContext ctx, final @Nullable ByteBuf transformed, final @Nullable Throwable cause,
+                          final List<ByteBuf> sentPackets, final ChannelPromise promise, final EncoderWrite encoder) {
+        transforming = false;
+        if (released) {
+            for (final ByteBuf packet : sentPackets) {
+                packet.release();
+            }
+            if (transformed != null) {
+                transformed.release();
+            }
+            promise.tryFailure(new ClosedChannelException());
+            connection.resumeServerbound();
+            return;
+        }
+
+        // Packets sent during the transformation are written before the transformed packet, just as they would inline.
+        // They have already been transformed, so they are written past the encoder
+        for (final ByteBuf packet : sentPackets) {
+            ctx.write(packet, ctx.newPromise());
+        }
+
+        if (transformed != null) {
+            ctx.write(transformed, promise);
+        } else {
+            fail(promise, cause);
+        }
+
+        draining = true;
+        try {
+            PendingWrite pendingWrite;
+            while (!transforming && (pendingWrite = pendingWrites.poll()) != null) {
+                if (pendingWrite.raw) {
+                    ctx.write(pendingWrite.msg, pendingWrite.promise);
+                } else {
+                    write(ctx, pendingWrite.msg, pendingWrite.promise, encoder);
+                }
+            }
+        } finally {
+            draining = false;
+        }
+
+        if (!transforming && flushRequested) {
+            flushRequested = false;
+            ctx.flush();
+        }
+
+        // Decode the serverbound packets held back during the transformation
+        connection.resumeServerbound();
+    }
+
+    private void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise, final EncoderWrite encoder) {
+        try {
+            encoder.write(ctx, msg, promise);
+        } catch (final Throwable t) {
+            // The encoder has already released the message
+            fail(promise, t);
+        }
+    }
+
+    private static void fail(final ChannelPromise promise, final Throwable cause) {
+        if (cause instanceof EncoderException || cause instanceof CancelCodecException) {
+            promise.tryFailure(cause);
+        } else {
+            promise.tryFailure(new EncoderException(cause));
+        }
+    }
+
+    @FunctionalInterface
+    public interface EncoderWrite {
+
+        void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception;
+    }
+
+    private static final class PendingWrite {
+        private final Object msg;
+        private final ChannelPromise promise;
+        /**
+         * Whether the message has already been transformed and is written past the encoder.
+         */
+        private final boolean raw;
+
+        private PendingWrite(final Object msg, final ChannelPromise promise, final boolean raw) {
+            this.msg = msg;
+            this.promise = promise;
+            this.raw = raw;
+        }
+    }
+}
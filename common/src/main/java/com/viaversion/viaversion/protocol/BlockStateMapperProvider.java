@@ -0,0 +1,38 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import java.util.function.IntUnaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Internal hook for rewriters to get block state mappers that may be fused over several protocols of a pipeline.
+ */
+public interface BlockStateMapperProvider {
+
+    /**
+     * Returns the block state mapper for the protocol currently transforming the given clientbound packet.
+     *
+     * @param wrapper  packet wrapper being transformed
+     * @param protocol protocol transforming the packet
+     * @return block state mapper, or null if the block states have already been remapped for the protocol
+     */
+    @Nullable IntUnaryOperator blockStateMapper(PacketWrapper wrapper, Protocol<?, ?, ?, ?> protocol);
+}
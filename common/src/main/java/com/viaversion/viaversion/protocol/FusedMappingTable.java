@@ -0,0 +1,207 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.MappingData;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Table of the clientbound packets whose block state remapping can be fused over consecutive protocols of a pipeline,
+ * with the composed block state mappings of every such run of protocols.
+ */
+final class FusedMappingTable {
+    /**
+     * Per protocol index the runs starting at it, keyed by state and unmapped packet id, or null if there are none.
+     */
+    private final @Nullable Int2ObjectMap<Run>[] runs;
+    private final Protocol[] protocols;
+
+    @SuppressWarnings("unchecked")
+    FusedMappingTable(final Protocol[] protocols) {
+        this.protocols = protocols;
+        this.runs = new Int2ObjectMap[protocols.length];
+        for (int i = 0; i < protocols.length; i++) {
+            if (!hasBlockStateMappings(protocols[i])) {
+                continue;
+            }
+
+            for (final State state : State.values()) {
+                // Only runs starting with a registered fusable packet exist
+                for (final int id : protocols[i].fusablePacketIds(state)) {
+                    addRun(i, state, id);
+                }
+            }
+        }
+    }
+
+    private void addRun(final int start, final State state, final int unmappedId) {
+        int id = protocols[start].fusablePacketId(Direction.CLIENTBOUND, state, unmappedId);
+        if (id == -1) {
+            return;
+        }
+
+        final List<Protocol> fusedProtocols = new ArrayList<>();
+        fusedProtocols.add(protocols[start]);
+        int end = start;
+        for (int i = start + 1; i < protocols.length; i++) {
+            final Protocol protocol = protocols[i];
+            final int fusableId = hasBlockStateMappings(protocol) ? protocol.fusablePacketId(Direction.CLIENTBOUND, state, id) : -1;
+            if (fusableId != -1) {
+                fusedProtocols.add(protocol);
+                end = i;
+                id = fusableId;
+                continue;
+            }
+
+            // Protocols in between have to leave the packet untouched
+            final int passthroughId = protocol.passthroughPacketId(Direction.CLIENTBOUND, state, id);
+            if (passthroughId == -1) {
+                break;
+            }
+            id = passthroughId;
+        }
+
+        if (fusedProtocols.size() == 1) {
+            return;
+        }
+
+        Int2ObjectMap<Run> protocolRuns = runs[start];
+        if (protocolRuns == null) {
+            protocolRuns = runs[start] = new Int2ObjectOpenHashMap<>();
+        }
+        protocolRuns.put(key(state, unmappedId), new Run(start, end, fusedProtocols.toArray(new Protocol[0])));
+    }
+
+    /**
+     * Returns the run of protocols starting at the given protocol that the block state remapping of the packet can be fused over.
+     *
+     * @param index      index of the protocol transforming the packet
+     * @param state      protocol state
+     * @param unmappedId packet id before the transformation by the protocol
+     * @return run of protocols starting at the given one, or null if the packet's remapping cannot be fused
+     */
+    @Nullable Run run(final int index, final State state, final int unmappedId) {
+        final Int2ObjectMap<Run> protocolRuns = index < runs.length ? runs[index] : null;
+        return protocolRuns != null ? protocolRuns.get(key(state, unmappedId)) : null;
+    }
+
+    private static int key(final State state, final int id) {
+        return state.ordinal() << 16 | id;
+    }
+
+    private static boolean hasBlockStateMappings(final Protocol protocol) {
+        final MappingData mappingData = protocol.getMappingData();
+        return mappingData != null && mappingData.getBlockStateMappings() != null;
+    }
+
+    final class Run {
+        private final int start;
+        private final int end;
+        private final Protocol[] fusedProtocols;
+        private volatile int[] blockStates;
+
+        private Run(final int start, final int end, final Protocol[] fusedProtocols) {
+            this.start = start;
+            this.end = end;
+            this.fusedProtocols = fusedProtocols;
+        }
+
+        /**
+         * Returns the index of the last protocol of the run.
+         *
+         * @return index of the last protocol of the run
+         */
+        int end() {
+            return end;
+        }
+
+        /**
+         * Returns whether the protocols after the first of the run currently leave the packet to the first one for the connection.
+         *
+         * @param connection user connection
+         * @return whether the remapping may be fused for the connection
+         */
+        boolean allowsFusion(final UserConnection connection) {
+            for (int i = start + 1; i <= end; i++) {
+                if (!protocols[i].allowsPassthrough(connection, Direction.CLIENTBOUND)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the block state id after all protocols of the run.
+         *
+         * @param id block state id before the first protocol of the run
+         * @return block state id after the last protocol of the run
+         */
+        int newBlockStateId(final int id) {
+            final int[] blockStates = blockStates();
+            final int mappedId = id >= 0 && id < blockStates.length ? blockStates[id] : -1;
+            if (mappedId != -1) {
+                return mappedId;
+            }
+
+            // Go through each protocol to keep their fallback behavior and warnings
+            int newId = id;
+            for (final Protocol protocol : fusedProtocols) {
+                newId = protocol.getMappingData().getNewBlockStateId(newId);
+            }
+            return newId;
+        }
+
+        private int[] blockStates() {
+            int[] blockStates = this.blockStates;
+            if (blockStates == null) {
+                // Racing threads compose equal arrays, so there is no need to lock
+                this.blockStates = blockStates = compose();
+            }
+            return blockStates;
+        }
+
+        private int[] compose() {
+            final Mappings[] mappings = new Mappings[fusedProtocols.length];
+            for (int i = 0; i < fusedProtocols.length; i++) {
+                mappings[i] = fusedProtocols[i].getMappingData().getBlockStateMappings();
+            }
+
+            final int[] blockStates = new int[mappings[0].size()];
+            for (int id = 0; id < blockStates.length; id++) {
+                int newId = id;
+                for (final Mappings protocolMappings : mappings) {
+                    newId = protocolMappings.getNewId(newId);
+                    if (newId == -1) {
+                        break;
+                    }
+                }
+                blockStates[id] = newId;
+            }
+            return blockStates;
+        }
+    }
+}
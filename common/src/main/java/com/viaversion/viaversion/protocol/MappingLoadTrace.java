@@ -0,0 +1,139 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.data.MappingData;
+import com.viaversion.viaversion.api.data.MappingDataLoader;
+
+/**
+ * Timings of the mapping data loading of a protocol, summed up over all of its loading tasks.
+ */
+public final class MappingLoadTrace {
+    private static final ThreadLocal<Task> CURRENT_TASK = new ThreadLocal<>();
+    /**
+     * Attributes the reported times to the loading task running on the current thread.
+     */
+    static final MappingDataLoader.LoadListener LOAD_LISTENER = new MappingDataLoader.LoadListener() {
+        @Override
+        public void mappingDataLoading(MappingData mappingData) {
+            Task task = CURRENT_TASK.get();
+            if (task != null) {
+                task.readTimeBeforeLoad = task.readTime;
+            }
+        }
+
+        @Override
+        public void fileRead(String name, long time) {
+            Task task = CURRENT_TASK.get();
+            if (task != null) {
+                task.readTime += time;
+            }
+        }
+
+        @Override
+        public void mappingDataLoaded(MappingData mappingData, long time) {
+            Task task = CURRENT_TASK.get();
+            if (task != null) {
+                task.parseTime += Math.max(0, time - (task.readTime - task.readTimeBeforeLoad));
+            }
+        }
+    };
+    private final String protocolName;
+    private final long submitted;
+    private long waitTime = -1;
+    private long readTime;
+    private long parseTime;
+    private long indexTime;
+
+    MappingLoadTrace(String protocolName) {
+        this.protocolName = protocolName;
+        this.submitted = System.nanoTime();
+    }
+
+    void run(Runnable runnable) {
+        Task task = new Task();
+        CURRENT_TASK.set(task);
+        long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            long time = System.nanoTime() - start;
+            CURRENT_TASK.remove();
+            synchronized (this) {
+                if (waitTime == -1) {
+                    waitTime = start - submitted;
+                }
+                readTime += task.readTime;
+                parseTime += task.parseTime;
+                indexTime += Math.max(0, time - task.readTime - task.parseTime);
+            }
+        }
+    }
+
+    public String protocolName() {
+        return protocolName;
+    }
+
+    /**
+     * Returns the time between the first loading task being submitted and it being started,
+     * including the time spent waiting for dependencies and a free loader thread.
+     *
+     * @return wait time in nanoseconds, or -1 if not started yet
+     */
+    public synchronized long waitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Returns the time spent reading and decoding mapping files. Files shared between protocols are only read once
+     * and cached, so their read time is included in the time of whichever protocol read them first.
+     *
+     * @return read time in nanoseconds
+     */
+    public synchronized long readTime() {
+        return readTime;
+    }
+
+    /**
+     * Returns the time spent creating the mappings from the read files.
+     *
+     * @return parse time in nanoseconds
+     */
+    public synchronized long parseTime() {
+        return parseTime;
+    }
+
+    /**
+     * Returns the remaining time of the loading tasks, mostly spent in the protocol's rewriters building their own indexes.
+     *
+     * @return index time in nanoseconds
+     */
+    public synchronized long indexTime() {
+        return indexTime;
+    }
+
+    public synchronized long totalTime() {
+        return readTime + parseTime + indexTime;
+    }
+
+    private static final class Task {
+        private long readTime;
+        private long readTimeBeforeLoad;
+        private long parseTime;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Table of the packets whose transformation through a whole pipeline in one direction may be shared
+ * between connections, storing the packet id at every protocol that has to provide its cache state.
+ */
+final class PacketCacheTable {
+    private static final int MAX_PACKET_ID = 0xFF;
+    private static final int NO_STATE = -1;
+    /**
+     * Per state and unmapped id the packet ids at each protocol, {@link #NO_STATE} for protocols only changing the id,
+     * or null if the packet cannot be cached or is never touched anyway.
+     */
+    private final int[][][] protocolIds = new int[State.values().length][][];
+    private final Protocol[] protocols;
+    private final Direction direction;
+
+    PacketCacheTable(final Protocol[] protocols, final Direction direction) {
+        this.protocols = protocols;
+        this.direction = direction;
+        for (final State state : State.values()) {
+            final int[][] ids = new int[MAX_PACKET_ID + 1][];
+            for (int id = 0; id < ids.length; id++) {
+                ids[id] = protocolIds(state, id);
+            }
+            protocolIds[state.ordinal()] = ids;
+        }
+    }
+
+    private int @Nullable [] protocolIds(final State state, final int unmappedId) {
+        final int[] ids = new int[protocols.length];
+        boolean transformed = false;
+        int id = unmappedId;
+        for (int i = 0; i < protocols.length; i++) {
+            final Protocol protocol = protocols[i];
+            final int passthroughId = protocol.passthroughPacketId(direction, state, id);
+            if (passthroughId != -1) {
+                ids[i] = NO_STATE;
+                id = passthroughId;
+                continue;
+            }
+
+            final int mappedId = protocol.cacheablePacketId(direction, state, id);
+            if (mappedId == -1) {
+                return null;
+            }
+
+            ids[i] = id;
+            id = mappedId;
+            transformed = true;
+        }
+        return transformed ? ids : null;
+    }
+
+    /**
+     * Returns the connection states the transformation of the given packet depends on if it may be cached, else null.
+     *
+     * @param connection user connection
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return connection states of the protocols transforming the packet, or null if the packet cannot be cached
+     */
+    Object @Nullable [] cacheStates(final UserConnection connection, final State state, final int unmappedId) {
+        if (unmappedId < 0 || unmappedId > MAX_PACKET_ID) {
+            return null;
+        }
+
+        final int[] ids = protocolIds[state.ordinal()][unmappedId];
+        if (ids == null) {
+            return null;
+        }
+
+        int statefulProtocols = 0;
+        for (int i = 0; i < protocols.length; i++) {
+            if (!protocols[i].allowsPassthrough(connection, direction)) {
+                return null;
+            }
+            if (ids[i] != NO_STATE) {
+                statefulProtocols++;
+            }
+        }
+
+        final Object[] cacheStates = new Object[statefulProtocols];
+        int index = 0;
+        for (int i = 0; i < protocols.length; i++) {
+            if (ids[i] == NO_STATE) {
+                continue;
+            }
+
+            final Object cacheState = protocols[i].packetCacheState(connection, direction, state, ids[i]);
+            if (cacheState == null) {
+                return null;
+            }
+            cacheStates[index++] = cacheState;
+        }
+        return cacheStates;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+
+/**
+ * Composite packet id table of a whole pipeline in one direction, mapping unmapped packet ids straight
+ * to their final ids if none of the protocols transform more than the id.
+ */
+final class PacketPassthroughTable {
+    private static final int MAX_PACKET_ID = 0xFF;
+    private final int[][] mappedIds = new int[State.values().length][];
+    private final Protocol[] protocols;
+    private final Direction direction;
+
+    PacketPassthroughTable(final Protocol[] protocols, final Direction direction) {
+        this.protocols = protocols;
+        this.direction = direction;
+        for (final State state : State.values()) {
+            final int[] ids = new int[MAX_PACKET_ID + 1];
+            for (int id = 0; id < ids.length; id++) {
+                ids[id] = computeMappedId(state, id);
+            }
+            mappedIds[state.ordinal()] = ids;
+        }
+    }
+
+    private int computeMappedId(final State state, final int unmappedId) {
+        int id = unmappedId;
+        for (final Protocol protocol : protocols) {
+            id = protocol.passthroughPacketId(direction, state, id);
+            if (id == -1) {
+                return -1;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Returns the final id of the given packet if none of the protocols transform more than its id, else -1.
+     *
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return final packet id, or -1 if the packet has to be transformed
+     */
+    int mappedId(final State state, final int unmappedId) {
+        if (unmappedId < 0 || unmappedId > MAX_PACKET_ID) {
+            return -1;
+        }
+        return mappedIds[state.ordinal()][unmappedId];
+    }
+
+    /**
+     * Returns whether all protocols currently allow packets of the given connection to skip the full transformation.
+     *
+     * @param connection user connection
+     * @return whether packets may skip the full transformation
+     */
+    boolean allowsPassthrough(final UserConnection connection) {
+        for (final Protocol protocol : protocols) {
+            if (!protocol.allowsPassthrough(connection, direction)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
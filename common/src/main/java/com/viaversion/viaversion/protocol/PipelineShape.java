@@ -0,0 +1,210 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable protocol arrays of a pipeline in both directions, interned so that all pipelines
+ * with the same protocols share the same arrays, passthrough and cache tables.
+ * <p>
+ * The arrays are shared between connections and must never be modified.
+ */
+final class PipelineShape {
+    /**
+     * Maximum number of interned shapes, further shapes are used without being shared.
+     */
+    private static final int MAX_SHAPES = 1024;
+    private static final Map<PipelineShape, PipelineShape> SHAPES = new ConcurrentHashMap<>();
+    /**
+     * Protocols ordered from client to server transformation with the base protocols at the start.
+     */
+    private final Protocol[] protocols;
+    /**
+     * Protocols ordered from server to client transformation.
+     */
+    private final Protocol[] reversedProtocols;
+    private final List<Protocol> protocolList;
+    private final List<Protocol> reversedProtocolList;
+    private final int baseProtocols;
+    private final int hashCode;
+    private volatile PacketPassthroughTable serverboundPassthroughTable;
+    private volatile PacketPassthroughTable clientboundPassthroughTable;
+    private volatile PacketCacheTable serverboundCacheTable;
+    private volatile PacketCacheTable clientboundCacheTable;
+    private volatile FusedMappingTable fusedMappingTable;
+
+    private PipelineShape(final Protocol[] protocols, final Protocol[] reversedProtocols, final int baseProtocols) {
+        this.protocols = protocols;
+        this.reversedProtocols = reversedProtocols;
+        this.baseProtocols = baseProtocols;
+        this.hashCode = 31 * (31 * Arrays.hashCode(protocols) + Arrays.hashCode(reversedProtocols)) + baseProtocols;
+        protocolList = Collections.unmodifiableList(Arrays.asList(protocols));
+        reversedProtocolList = Collections.unmodifiableList(Arrays.asList(reversedProtocols));
+    }
+
+    /**
+     * Returns the shared shape for the given protocols, with the base protocols in front of the reversed others.
+     *
+     * @param protocols     protocols ordered from client to server transformation, base protocols first; not copied
+     * @param baseProtocols number of base protocols at the start of the array
+     * @return shared shape
+     */
+    static PipelineShape of(final Protocol[] protocols, final int baseProtocols) {
+        // Base protocols stay in front, the others are reversed
+        final Protocol[] reversedProtocols = new Protocol[protocols.length];
+        System.arraycopy(protocols, 0, reversedProtocols, 0, baseProtocols);
+        for (int i = baseProtocols; i < protocols.length; i++) {
+            reversedProtocols[protocols.length - 1 - (i - baseProtocols)] = protocols[i];
+        }
+        return intern(new PipelineShape(protocols, reversedProtocols, baseProtocols));
+    }
+
+    private static PipelineShape intern(final PipelineShape shape) {
+        final PipelineShape existingShape = SHAPES.get(shape);
+        if (existingShape != null) {
+            return existingShape;
+        }
+        if (SHAPES.size() >= MAX_SHAPES) {
+            // Don't let the map grow with every shape ever built, e.g. by protocols added at runtime
+            return shape;
+        }
+
+        final PipelineShape racingShape = SHAPES.putIfAbsent(shape, shape);
+        return racingShape != null ? racingShape : shape;
+    }
+
+    /**
+     * Returns a shape with the given protocol added. Base protocols are added after the previous base protocols,
+     * other protocols are appended and put at the start of the reversed order.
+     *
+     * @param protocol protocol to add
+     * @return shared shape
+     */
+    PipelineShape add(final Protocol protocol) {
+        if (protocol.isBaseProtocol()) {
+            // Add base protocol on top of previous ones
+            return intern(new PipelineShape(insert(protocols, baseProtocols, protocol), insert(reversedProtocols, baseProtocols, protocol), baseProtocols + 1));
+        }
+
+        // Appended to the transformation order, and put in front of the reversed order (including base protocols)
+        return intern(new PipelineShape(insert(protocols, protocols.length, protocol), insert(reversedProtocols, 0, protocol), baseProtocols));
+    }
+
+    private static Protocol[] insert(final Protocol[] protocols, final int index, final Protocol protocol) {
+        final Protocol[] newProtocols = new Protocol[protocols.length + 1];
+        System.arraycopy(protocols, 0, newProtocols, 0, index);
+        newProtocols[index] = protocol;
+        System.arraycopy(protocols, index, newProtocols, index + 1, protocols.length - index);
+        return newProtocols;
+    }
+
+    /**
+     * Returns a shape with the given protocols appended.
+     *
+     * @param addedProtocols protocols to add
+     * @return shared shape
+     */
+    PipelineShape add(final Protocol[] addedProtocols) {
+        final Protocol[] newProtocols = Arrays.copyOf(protocols, protocols.length + addedProtocols.length);
+        System.arraycopy(addedProtocols, 0, newProtocols, protocols.length, addedProtocols.length);
+        return of(newProtocols, baseProtocols);
+    }
+
+    /**
+     * Returns the protocols in transformation order of the given direction.
+     *
+     * @param direction direction
+     * @return shared protocol array, not to be modified
+     */
+    Protocol[] protocols(final Direction direction) {
+        return direction == Direction.SERVERBOUND ? protocols : reversedProtocols;
+    }
+
+    List<Protocol> protocolList() {
+        return protocolList;
+    }
+
+    List<Protocol> reversedProtocolList() {
+        return reversedProtocolList;
+    }
+
+    PacketPassthroughTable passthroughTable(final Direction direction) {
+        PacketPassthroughTable table = direction == Direction.SERVERBOUND ? serverboundPassthroughTable : clientboundPassthroughTable;
+        if (table == null) {
+            // Racing threads build equal tables, so there is no need to lock
+            table = new PacketPassthroughTable(protocols(direction), direction);
+            if (direction == Direction.SERVERBOUND) {
+                serverboundPassthroughTable = table;
+            } else {
+                clientboundPassthroughTable = table;
+            }
+        }
+        return table;
+    }
+
+    PacketCacheTable cacheTable(final Direction direction) {
+        PacketCacheTable table = direction == Direction.SERVERBOUND ? serverboundCacheTable : clientboundCacheTable;
+        if (table == null) {
+            table = new PacketCacheTable(protocols(direction), direction);
+            if (direction == Direction.SERVERBOUND) {
+                serverboundCacheTable = table;
+            } else {
+                clientboundCacheTable = table;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the table of fused block state mappings for clientbound packets, to only be built once mapping data is loaded.
+     *
+     * @return fused mapping table
+     */
+    FusedMappingTable fusedMappingTable() {
+        FusedMappingTable table = fusedMappingTable;
+        if (table == null) {
+            fusedMappingTable = table = new FusedMappingTable(reversedProtocols);
+        }
+        return table;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final PipelineShape that = (PipelineShape) o;
+        return baseProtocols == that.baseProtocols && Arrays.equals(protocols, that.protocols) && Arrays.equals(reversedProtocols, that.reversedProtocols);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return protocolList.toString();
+    }
+}
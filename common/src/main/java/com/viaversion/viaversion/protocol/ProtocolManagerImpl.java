@@ -21,6 +21,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonObject;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.MappingDataLoader;
@@ -90,6 +91,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -99,7 +101,7 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -119,7 +121,13 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     private final ReadWriteLock mappingLoaderLock = new ReentrantReadWriteLock();
     private Map<Class<? extends Protocol>, CompletableFuture<Void>> mappingLoaderFutures = new HashMap<>();
+    private final Map<Class<? extends Protocol>, DeferredMappingLoader> deferredMappingLoaders = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Protocol>, MappingLoadTrace> mappingLoadTraces = new ConcurrentHashMap<>();
+    private final int mappingLoaderThreads;
     private ThreadPoolExecutor mappingLoaderExecutor;
+    private long mappingLoadingStart;
+    private volatile long mappingLoadingTime = -1;
+    private boolean lazyMappingLoading;
     private boolean mappingsLoaded;
 
     private ServerProtocolVersion serverProtocolVersion = new ServerProtocolVersionSingleton(-1);
@@ -128,11 +136,17 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     public ProtocolManagerImpl() {
         ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Via-Mappingloader-%d").build();
-        mappingLoaderExecutor = new ThreadPoolExecutor(12, Integer.MAX_VALUE, 30L, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+        // Loading tasks never wait for each other on a loader thread, so there is no need for more threads than cores
+        mappingLoaderThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        mappingLoaderExecutor = new ThreadPoolExecutor(mappingLoaderThreads, mappingLoaderThreads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
         mappingLoaderExecutor.allowCoreThreadTimeOut(true);
     }
 
     public void registerProtocols() {
+        mappingLoadingStart = System.nanoTime();
+        lazyMappingLoading = Via.getConfig().isLazyMappingLoading();
+        MappingDataLoader.setLoadListener(MappingLoadTrace.LOAD_LISTENER);
+
         // Base Protocol
         registerBaseProtocol(BASE_PROTOCOL, Range.lessThan(Integer.MIN_VALUE));
         registerBaseProtocol(new BaseProtocol1_7(), Range.lessThan(ProtocolVersion.v1_16.getVersion()));
@@ -185,6 +199,9 @@ public class ProtocolManagerImpl implements ProtocolManager {
         registerProtocol(new Protocol1_20To1_19_4(), ProtocolVersion.v1_20, ProtocolVersion.v1_19_4);
         registerProtocol(new Protocol1_20_2To1_20(), ProtocolVersion.v1_20_2, ProtocolVersion.v1_20);
         registerProtocol(new Protocol1_20_3To1_20_2(), ProtocolVersion.v1_20_3, ProtocolVersion.v1_20_2);
+
+        // Only start with the mappings of protocols that can be used with the server version
+        loadReachableMappingData();
     }
 
     @Override
@@ -213,19 +230,23 @@ public class ProtocolManagerImpl implements ProtocolManager {
         }
 
         protocol.register(Via.getManager().getProviders());
-        if (Via.getManager().isInitialized()) {
-            refreshVersions();
-        }
 
         if (protocol.hasMappingDataToLoad()) {
-            if (mappingLoaderExecutor != null) {
-                // Submit mapping data loading
-                addMappingLoaderFuture(protocol.getClass(), protocol::loadMappingData);
-            } else {
+            if (mappingLoaderExecutor == null) {
                 // Late protocol adding - just do it on the current thread
                 protocol.loadMappingData();
+            } else if (lazyMappingLoading) {
+                // Submitted once the protocol is found in a protocol path to the server version
+                deferMappingLoading(protocol.getClass(), null, protocol::loadMappingData);
+            } else {
+                // Submit mapping data loading
+                addMappingLoaderFuture(protocol.getClass(), protocol::loadMappingData);
             }
         }
+
+        if (Via.getManager().isInitialized()) {
+            refreshVersions();
+        }
     }
 
     @Override
@@ -253,6 +274,32 @@ public class ProtocolManagerImpl implements ProtocolManager {
                 supportedVersions.add(pathEntry.outputProtocolVersion());
             }
         }
+
+        loadReachableMappingData();
+    }
+
+    /**
+     * Starts loading the deferred mapping data of all protocols found in a protocol path to one of the server versions.
+     * Mapping data of other protocols is only loaded once a connection needs it.
+     */
+    private void loadReachableMappingData() {
+        if (deferredMappingLoaders.isEmpty() || !serverProtocolVersion.isKnown()) {
+            return;
+        }
+
+        for (int serverVersion : serverProtocolVersion.supportedVersions()) {
+            for (ProtocolVersion version : ProtocolVersion.getProtocols()) {
+                List<ProtocolPathEntry> protocolPath = getProtocolPath(version.getVersion(), serverVersion);
+                if (protocolPath == null) continue;
+
+                for (ProtocolPathEntry pathEntry : protocolPath) {
+                    DeferredMappingLoader loader = deferredMappingLoaders.get(pathEntry.protocol().getClass());
+                    if (loader != null) {
+                        loader.start(false);
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -375,6 +422,7 @@ public class ProtocolManagerImpl implements ProtocolManager {
         this.serverProtocolVersion = serverProtocolVersion;
         //noinspection deprecation
         ProtocolRegistry.SERVER_PROTOCOL = serverProtocolVersion.lowestSupportedVersion();
+        loadReachableMappingData();
     }
 
     @Override
@@ -421,15 +469,30 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     @Override
     public void completeMappingDataLoading(Class<? extends Protocol> protocolClass) throws Exception {
-        if (mappingsLoaded) return;
-
-        CompletableFuture<Void> future = getMappingLoaderFuture(protocolClass);
+        CompletableFuture<Void> future = mappingDataLoadingFuture(protocolClass);
         if (future != null) {
             // Wait for completion
             future.get();
         }
     }
 
+    /**
+     * Returns the future of the mapping data loading of the given protocol without waiting for it.
+     * Deferred mapping data is started to be loaded if it hasn't been started yet.
+     *
+     * @param protocolClass protocol class
+     * @return loading future, or null if the mapping data has already been loaded
+     */
+    public @Nullable CompletableFuture<Void> mappingDataLoadingFuture(Class<? extends Protocol> protocolClass) {
+        DeferredMappingLoader deferredLoader = deferredMappingLoaders.get(protocolClass);
+        if (deferredLoader != null) {
+            // Load it now if it hasn't been started yet
+            CompletableFuture<Void> future = deferredLoader.start(true);
+            return future.isDone() ? null : future;
+        }
+        return getMappingLoaderFuture(protocolClass);
+    }
+
     @Override
     public boolean checkForMappingCompletion() {
         mappingLoaderLock.readLock().lock();
@@ -454,29 +517,41 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     @Override
     public void addMappingLoaderFuture(Class<? extends Protocol> protocolClass, Runnable runnable) {
-        CompletableFuture<Void> future = CompletableFuture.runAsync(runnable, mappingLoaderExecutor).exceptionally(mappingLoaderThrowable(protocolClass));
-
-        mappingLoaderLock.writeLock().lock();
-        try {
-            mappingLoaderFutures.put(protocolClass, future);
-        } finally {
-            mappingLoaderLock.writeLock().unlock();
-        }
+        submitMappingLoading(protocolClass, CompletableFuture.completedFuture(null), runnable);
     }
 
     @Override
     public void addMappingLoaderFuture(Class<? extends Protocol> protocolClass, Class<? extends Protocol> dependsOn, Runnable runnable) {
-        CompletableFuture<Void> future = getMappingLoaderFuture(dependsOn)
-                .whenCompleteAsync((v, throwable) -> runnable.run(), mappingLoaderExecutor).exceptionally(mappingLoaderThrowable(protocolClass));
+        if (deferredMappingLoaders.containsKey(dependsOn)) {
+            // Loaded together with the deferred mapping data it depends on
+            deferMappingLoading(protocolClass, dependsOn, runnable);
+            return;
+        }
 
+        CompletableFuture<Void> dependency = getMappingLoaderFuture(dependsOn);
+        submitMappingLoading(protocolClass, dependency != null ? dependency : CompletableFuture.completedFuture(null), runnable);
+    }
+
+    /**
+     * Submits a loading task to run once the given dependency has been loaded.
+     * Tasks are chained to their dependencies rather than waiting for them, so that none of them block a loader thread.
+     */
+    private CompletableFuture<Void> submitMappingLoading(Class<? extends Protocol> protocolClass, CompletableFuture<Void> dependency, Runnable runnable) {
+        MappingLoadTrace trace = mappingLoadTrace(protocolClass);
         mappingLoaderLock.writeLock().lock();
         try {
+            CompletableFuture<Void> future = dependency.whenCompleteAsync((v, throwable) -> trace.run(runnable), mappingLoaderExecutor).exceptionally(mappingLoaderThrowable(protocolClass));
             mappingLoaderFutures.put(protocolClass, future);
+            return future;
         } finally {
             mappingLoaderLock.writeLock().unlock();
         }
     }
 
+    private MappingLoadTrace mappingLoadTrace(Class<? extends Protocol> protocolClass) {
+        return mappingLoadTraces.computeIfAbsent(protocolClass, key -> new MappingLoadTrace(key.getSimpleName()));
+    }
+
     @Override
     public @Nullable CompletableFuture<Void> getMappingLoaderFuture(Class<? extends Protocol> protocolClass) {
         mappingLoaderLock.readLock().lock();
@@ -498,11 +573,35 @@ public class ProtocolManagerImpl implements ProtocolManager {
         return new PacketWrapperImpl(packetId, buf, connection);
     }
 
+    /**
+     * Shuts down the loader executor as soon as all mapping loading submitted until then has been completed.
+     */
+    public void shutdownLoaderExecutorOnCompletion() {
+        CompletableFuture<?>[] futures;
+        mappingLoaderLock.readLock().lock();
+        try {
+            if (mappingsLoaded) {
+                return;
+            }
+            futures = mappingLoaderFutures.values().toArray(new CompletableFuture[0]);
+        } finally {
+            mappingLoaderLock.readLock().unlock();
+        }
+
+        CompletableFuture.allOf(futures).whenComplete((v, throwable) -> {
+            if (!checkForMappingCompletion()) {
+                // More loading has been submitted in the meantime
+                shutdownLoaderExecutorOnCompletion();
+            }
+        });
+    }
+
     public void shutdownLoaderExecutor() {
         Preconditions.checkArgument(!mappingsLoaded);
 
         // If this log message is missing, something is wrong
-        Via.getPlatform().getLogger().info("Finished mapping loading, shutting down loader executor!");
+        mappingLoadingTime = System.nanoTime() - mappingLoadingStart;
+        Via.getPlatform().getLogger().info("Finished mapping loading in " + TimeUnit.NANOSECONDS.toMillis(mappingLoadingTime) + "ms, shutting down loader executor!");
         mappingsLoaded = true;
         mappingLoaderExecutor.shutdown();
         mappingLoaderExecutor = null;
@@ -513,10 +612,123 @@ public class ProtocolManagerImpl implements ProtocolManager {
         MappingDataLoader.clearCache();
     }
 
+    /**
+     * Returns the startup trace of the mapping loading, with the timings of every protocol's mapping loading.
+     *
+     * @return mapping loading trace
+     */
+    public JsonObject dumpMappingLoading() {
+        JsonObject object = new JsonObject();
+        object.addProperty("threads", mappingLoaderThreads);
+        object.addProperty("lazy", lazyMappingLoading);
+        object.addProperty("total-millis", mappingLoadingTime != -1 ? millis(mappingLoadingTime) : -1);
+        object.addProperty("note", "Files shared between protocols are read once, counted for the protocol reading them first");
+
+        // Slowest first
+        List<MappingLoadTrace> traces = new ArrayList<>(mappingLoadTraces.values());
+        traces.sort(Comparator.comparingLong(MappingLoadTrace::totalTime).reversed());
+        JsonObject protocolTraces = new JsonObject();
+        for (MappingLoadTrace trace : traces) {
+            JsonObject traceObject = new JsonObject();
+            traceObject.addProperty("wait-millis", trace.waitTime() != -1 ? millis(trace.waitTime()) : -1);
+            traceObject.addProperty("read-millis", millis(trace.readTime()));
+            traceObject.addProperty("parse-millis", millis(trace.parseTime()));
+            traceObject.addProperty("index-millis", millis(trace.indexTime()));
+            protocolTraces.add(trace.protocolName(), traceObject);
+        }
+        object.add("protocols", protocolTraces);
+        return object;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000D) / 100D;
+    }
+
+    private void deferMappingLoading(Class<? extends Protocol> protocolClass, @Nullable Class<? extends Protocol> dependsOn, Runnable runnable) {
+        deferredMappingLoaders.merge(protocolClass, new DeferredMappingLoader(protocolClass, dependsOn, null, runnable),
+                (previous, loader) -> new DeferredMappingLoader(protocolClass, dependsOn, previous, runnable));
+    }
+
     private Function<Throwable, Void> mappingLoaderThrowable(Class<? extends Protocol> protocolClass) {
         return throwable -> {
             Via.getPlatform().getLogger().log(Level.SEVERE, "Error during mapping loading of " + protocolClass.getSimpleName(), throwable);
             return null;
         };
     }
+
+    /**
+     * Mapping data loading that is only started once the protocol is needed.
+     */
+    private final class DeferredMappingLoader {
+        private final Class<? extends Protocol> protocolClass;
+        private final @Nullable Class<? extends Protocol> dependsOn;
+        private final @Nullable DeferredMappingLoader previous;
+        private final Runnable runnable;
+        private CompletableFuture<Void> future;
+
+        private DeferredMappingLoader(Class<? extends Protocol> protocolClass, @Nullable Class<? extends Protocol> dependsOn,
+                                     @Nullable DeferredMappingLoader previous, Runnable runnable) {
+            this.protocolClass = protocolClass;
+            this.dependsOn = dependsOn;
+            this.previous = previous;
+            this.runnable = runnable;
+        }
+
+        /**
+         * Starts loading the mapping data and the data it depends on if not already started.
+         * The data is loaded on the loader executor while it is still present.
+         *
+         * @param load whether to load on the common pool if the loader executor has already been shut down
+         * @return loading future, or null if the loader executor has already been shut down and load is false
+         */
+        synchronized @Nullable CompletableFuture<Void> start(boolean load) {
+            if (future != null) {
+                return future;
+            }
+
+            CompletableFuture<Void> previousFuture = previous != null ? previous.start(load) : CompletableFuture.completedFuture(null);
+            CompletableFuture<Void> dependencyFuture = dependsOn != null ? dependencyFuture(dependsOn, load) : CompletableFuture.completedFuture(null);
+            if (previousFuture == null || dependencyFuture == null) {
+                return null;
+            }
+
+            mappingLoaderLock.writeLock().lock();
+            try {
+                if (mappingLoaderExecutor != null) {
+                    future = submitMappingLoading(protocolClass, CompletableFuture.allOf(previousFuture, dependencyFuture), runnable);
+                    return future;
+                }
+            } finally {
+                mappingLoaderLock.writeLock().unlock();
+            }
+
+            if (!load) {
+                return null;
+            }
+
+            // Load it off the calling thread, which is usually an event loop
+            MappingLoadTrace trace = mappingLoadTrace(protocolClass);
+            future = CompletableFuture.allOf(previousFuture, dependencyFuture).thenRunAsync(() -> {
+                try {
+                    trace.run(runnable);
+                } catch (Throwable throwable) {
+                    mappingLoaderThrowable(protocolClass).apply(throwable);
+                }
+
+                // Don't keep mapping files cached after loading on demand
+                MappingDataLoader.clearCache();
+            });
+            return future;
+        }
+
+        private @Nullable CompletableFuture<Void> dependencyFuture(Class<? extends Protocol> dependency, boolean load) {
+            DeferredMappingLoader loader = deferredMappingLoaders.get(dependency);
+            if (loader != null) {
+                return loader.start(load);
+            }
+
+            CompletableFuture<Void> loaderFuture = getMappingLoaderFuture(dependency);
+            return loaderFuture != null ? loaderFuture : CompletableFuture.completedFuture(null);
+        }
+    }
 }
@@ -19,32 +19,34 @@ package com.viaversion.viaversion.protocol;
 
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.MappingData;
 import com.viaversion.viaversion.api.debug.DebugHandler;
 import com.viaversion.viaversion.api.protocol.AbstractSimpleProtocol;
 import com.viaversion.viaversion.api.protocol.Protocol;
 import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.PacketType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
-import java.util.ArrayList;
+import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypeMap;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
+import io.netty.buffer.ByteBuf;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntUnaryOperator;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements ProtocolPipeline {
+public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements ProtocolPipeline, BlockStateMapperProvider {
     private final UserConnection userConnection;
+    private final Set<Class<? extends Protocol>> protocolSet = new HashSet<>();
     /**
-     * Protocol list ordered from client to server transformation with the base protocols at the end.
+     * Shared protocol arrays of this pipeline, replaced whenever protocols are added or removed.
      */
-    private final List<Protocol> protocolList = new CopyOnWriteArrayList<>();
-    private final Set<Class<? extends Protocol>> protocolSet = new HashSet<>();
-    private List<Protocol> reversedProtocolList = new CopyOnWriteArrayList<>();
-    private int baseProtocols;
+    private volatile PipelineShape shape;
 
     public ProtocolPipelineImpl(UserConnection userConnection) {
         this.userConnection = userConnection;
@@ -56,10 +58,8 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
     protected synchronized void registerPackets() {
         // This is a pipeline so we register basic pipes
         final Protocol<?, ?, ?, ?> baseProtocol = Via.getManager().getProtocolManager().getBaseProtocol();
-        protocolList.add(baseProtocol);
-        reversedProtocolList.add(baseProtocol);
+        shape = PipelineShape.of(new Protocol[]{baseProtocol}, 1);
         protocolSet.add(baseProtocol.getClass());
-        baseProtocols++;
     }
 
     @Override
@@ -69,37 +69,18 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public synchronized void add(final Protocol protocol) {
-        if (protocol.isBaseProtocol()) {
-            // Add base protocol on top of previous ones
-            protocolList.add(baseProtocols, protocol);
-            reversedProtocolList.add(baseProtocols, protocol);
-            baseProtocols++;
-        } else {
-            protocolList.add(protocol);
-            reversedProtocolList.add(0, protocol);
-        }
-
+        shape = shape.add(protocol);
         protocolSet.add(protocol.getClass());
         protocol.init(userConnection);
     }
 
     @Override
     public synchronized void add(final Collection<Protocol> protocols) {
-        protocolList.addAll(protocols);
+        shape = shape.add(protocols.toArray(new Protocol[0]));
         for (final Protocol protocol : protocols) {
             protocol.init(userConnection);
             protocolSet.add(protocol.getClass());
         }
-
-        refreshReversedList();
-    }
-
-    private synchronized void refreshReversedList() {
-        final List<Protocol> protocols = new ArrayList<>(protocolList.subList(0, this.baseProtocols));
-        final List<Protocol> additionalProtocols = new ArrayList<>(protocolList.subList(this.baseProtocols, protocolList.size()));
-        Collections.reverse(additionalProtocols);
-        protocols.addAll(additionalProtocols);
-        reversedProtocolList = new CopyOnWriteArrayList<>(protocols);
     }
 
     @Override
@@ -112,7 +93,13 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
         }
 
         // Apply protocols
-        packetWrapper.apply(direction, state, 0, protocolListFor(direction));
+        final Protocol[] protocols = shape.protocols(direction);
+        if (packetWrapper instanceof PacketWrapperImpl) {
+            // The shared arrays are immutable, so they don't need to be copied
+            ((PacketWrapperImpl) packetWrapper).apply(direction, state, protocols);
+        } else {
+            packetWrapper.apply(direction, state, 0, Arrays.asList(protocols));
+        }
         super.transform(direction, state, packetWrapper);
 
         if (debugHandler.enabled() && debugHandler.logPostPacketTransform() && debugHandler.shouldLog(packetWrapper, direction)) {
@@ -120,8 +107,87 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
         }
     }
 
-    private List<Protocol> protocolListFor(final Direction direction) {
-        return Collections.unmodifiableList(direction == Direction.SERVERBOUND ? protocolList : reversedProtocolList);
+    @Override
+    public int passthroughPacketId(final Direction direction, final State state, final int unmappedId) {
+        return shape.passthroughTable(direction).mappedId(state, unmappedId);
+    }
+
+    @Override
+    public boolean allowsPassthrough(final UserConnection connection, final Direction direction) {
+        return shape.passthroughTable(direction).allowsPassthrough(connection);
+    }
+
+    /**
+     * Returns the key to look up the given packet in the shared packet cache with, or null if its transformation
+     * cannot be shared with other connections.
+     *
+     * @param direction  direction of the packet
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @param buf        packet contents after the id; only referenced by the returned key
+     * @return cache key, or null if the packet cannot be cached
+     */
+    public TranslatedPacketCache.@Nullable Key packetCacheKey(final Direction direction, final State state, final int unmappedId, final ByteBuf buf) {
+        final PipelineShape shape = this.shape;
+        final Object[] cacheStates = shape.cacheTable(direction).cacheStates(userConnection, state, unmappedId);
+        return cacheStates != null ? new TranslatedPacketCache.Key(shape, direction, state, unmappedId, cacheStates, buf) : null;
+    }
+
+    /**
+     * Returns the block state mapper for the protocol currently transforming the given clientbound packet. If possible,
+     * its remapping is fused with that of the following protocols, which are then left with nothing to remap.
+     *
+     * @param packetWrapper packet wrapper being transformed
+     * @param protocol      protocol transforming the packet
+     * @return block state mapper, or null if the block states have already been remapped for the protocol
+     */
+    @Override
+    public @Nullable IntUnaryOperator blockStateMapper(final PacketWrapper packetWrapper, final Protocol<?, ?, ?, ?> protocol) {
+        final MappingData mappingData = protocol.getMappingData();
+        if (!(packetWrapper instanceof PacketWrapperImpl)) {
+            return mappingData::getNewBlockStateId;
+        }
+
+        final PacketWrapperImpl wrapper = (PacketWrapperImpl) packetWrapper;
+        if (wrapper.areBlockStatesFused()) {
+            return null;
+        }
+
+        final PipelineShape shape = this.shape;
+        final Protocol[] protocols = wrapper.appliedProtocols();
+        if (protocols != shape.protocols(Direction.CLIENTBOUND) || protocols[wrapper.appliedIndex()] != protocol) {
+            // Not transformed by the full pipeline
+            return mappingData::getNewBlockStateId;
+        }
+
+        final FusedMappingTable.Run run = shape.fusedMappingTable().run(wrapper.appliedIndex(), wrapper.appliedState(), wrapper.appliedId());
+        if (run == null || !run.allowsFusion(userConnection)) {
+            return mappingData::getNewBlockStateId;
+        }
+
+        wrapper.setBlockStatesFusedUntil(run.end());
+        return run::newBlockStateId;
+    }
+
+    /**
+     * Returns whether the given clientbound packet sent by the server contains chunk data.
+     *
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return whether the packet is a chunk data or bulk chunk packet
+     */
+    public boolean isChunkPacket(final State state, final int unmappedId) {
+        for (final Protocol protocol : shape.protocols(Direction.CLIENTBOUND)) {
+            if (protocol.isBaseProtocol()) {
+                continue;
+            }
+
+            // The first protocol gets the packets as sent by the server
+            final PacketTypeMap<?> packetTypes = (PacketTypeMap<?>) protocol.getPacketTypesProvider().unmappedClientboundPacketTypes().get(state);
+            final PacketType packetType = packetTypes != null ? packetTypes.typeById(unmappedId) : null;
+            return packetType != null && (packetType.getName().equals("CHUNK_DATA") || packetType.getName().equals("MAP_BULK_CHUNK"));
+        }
+        return false;
     }
 
     private void logPacket(Direction direction, State state, PacketWrapper packetWrapper, int originalID) {
@@ -148,7 +214,7 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public @Nullable <P extends Protocol> P getProtocol(Class<P> pipeClass) {
-        for (Protocol protocol : protocolList) {
+        for (Protocol protocol : shape.protocols(Direction.SERVERBOUND)) {
             if (protocol.getClass() == pipeClass) {
                 return (P) protocol;
             }
@@ -158,17 +224,17 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public List<Protocol> pipes() {
-        return Collections.unmodifiableList(protocolList);
+        return shape.protocolList();
     }
 
     @Override
     public List<Protocol> reversedPipes() {
-        return Collections.unmodifiableList(reversedProtocolList);
+        return shape.reversedProtocolList();
     }
 
     @Override
     public boolean hasNonBaseProtocols() {
-        for (Protocol protocol : protocolList) {
+        for (Protocol protocol : shape.protocols(Direction.SERVERBOUND)) {
             if (!protocol.isBaseProtocol()) {
                 return true;
             }
@@ -178,10 +244,7 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public synchronized void cleanPipes() {
-        protocolList.clear();
-        reversedProtocolList.clear();
         protocolSet.clear();
-        baseProtocols = 0;
 
         registerPackets();
     }
@@ -189,7 +252,7 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
     @Override
     public String toString() {
         return "ProtocolPipelineImpl{" +
-                "protocolList=" + protocolList +
+                "protocolList=" + shape +
                 '}';
     }
 }
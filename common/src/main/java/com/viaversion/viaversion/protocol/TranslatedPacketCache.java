@@ -0,0 +1,152 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Size-bounded cache of fully transformed packets shared between all connections, so that packets like chunks
+ * sent to many players on the same version only have to be transformed once.
+ * <p>
+ * Entries are keyed by the raw input packet, the pipeline it is transformed through, and the connection state
+ * its transformation depends on. Only packets all protocols of a pipeline mark as cacheable are stored,
+ * see {@link Protocol#cacheablePacketId(Direction, State, int)}.
+ */
+public final class TranslatedPacketCache {
+    private final Cache<Key, byte[]> cache;
+    private final long maximumBytes;
+
+    public TranslatedPacketCache(final long maximumBytes) {
+        this.maximumBytes = maximumBytes;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Key key, byte[] value) -> key.data.readableBytes() + value.length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the transformed packet for the given key, including its packet id.
+     *
+     * @param key cache key
+     * @return transformed packet, or null if not cached
+     */
+    public byte @Nullable [] get(final Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores the transformed packet written to the output buffer from the given index.
+     *
+     * @param key         cache key owning its data, see {@link Key#copy()}
+     * @param output      output buffer
+     * @param outputIndex index the transformed packet starts at
+     */
+    public void put(final Key key, final ByteBuf output, final int outputIndex) {
+        final byte[] transformed = new byte[output.writerIndex() - outputIndex];
+        output.getBytes(outputIndex, transformed);
+        cache.put(key, transformed);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public JsonObject dump() {
+        final CacheStats stats = cache.stats();
+        final JsonObject object = new JsonObject();
+        object.addProperty("maximumBytes", maximumBytes);
+        object.addProperty("entries", cache.size());
+        object.addProperty("hits", stats.hitCount());
+        object.addProperty("misses", stats.missCount());
+        object.addProperty("hitRate", stats.hitRate());
+        object.addProperty("evictions", stats.evictionCount());
+        return object;
+    }
+
+    public static final class Key {
+        private final PipelineShape shape;
+        private final Direction direction;
+        private final State state;
+        private final int id;
+        private final Object[] cacheStates;
+        private final ByteBuf data;
+        private final int hashCode;
+
+        Key(final PipelineShape shape, final Direction direction, final State state, final int id, final Object[] cacheStates, final ByteBuf data) {
+            this(shape, direction, state, id, cacheStates, data, hashCode(shape, direction, state, id, cacheStates, data));
+        }
+
+        private Key(final PipelineShape shape, final Direction direction, final State state, final int id,
+                    final Object[] cacheStates, final ByteBuf data, final int hashCode) {
+            this.shape = shape;
+            this.direction = direction;
+            this.state = state;
+            this.id = id;
+            this.cacheStates = cacheStates;
+            this.data = data;
+            this.hashCode = hashCode;
+        }
+
+        private static int hashCode(final PipelineShape shape, final Direction direction, final State state, final int id,
+                                    final Object[] cacheStates, final ByteBuf data) {
+            int result = shape.hashCode();
+            result = 31 * result + direction.hashCode();
+            result = 31 * result + state.hashCode();
+            result = 31 * result + id;
+            result = 31 * result + Arrays.hashCode(cacheStates);
+            result = 31 * result + ByteBufUtil.hashCode(data);
+            return result;
+        }
+
+        /**
+         * Returns a copy of this key owning its packet data, as the data of lookup keys
+         * is only a view of the packet buffer being transformed.
+         *
+         * @return key to store entries with
+         */
+        public Key copy() {
+            return new Key(shape, direction, state, id, cacheStates, Unpooled.copiedBuffer(data), hashCode);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return hashCode == key.hashCode && id == key.id && shape == key.shape && direction == key.direction && state == key.state
+                    && Arrays.equals(cacheStates, key.cacheStates) && ByteBufUtil.equals(data, key.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol.packet;
+
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * List of typed packet values, storing values of {@link PrimitiveValueType}s without boxing when written as primitives.
+ */
+final class PacketValues {
+    /**
+     * Marks a slot whose value is stored in {@link #primitives}.
+     */
+    private static final Object PRIMITIVE = new Object();
+    private static final int INITIAL_CAPACITY = 8;
+    private Type<?>[] types = new Type[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private long[] primitives = new long[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    Type<?> type(final int index) {
+        return types[index];
+    }
+
+    @Nullable Object value(final int index) {
+        final Object value = values[index];
+        return value == PRIMITIVE ? ((PrimitiveValueType<?>) types[index]).fromBits(primitives[index]) : value;
+    }
+
+    /**
+     * Returns the primitive bits of the value at the given index.
+     *
+     * @param index index of the value
+     * @param type  primitive type used to convert a boxed value, having the same output class as the stored type
+     * @return primitive bits of the value
+     */
+    @SuppressWarnings("unchecked")
+    long bits(final int index, final PrimitiveValueType<?> type) {
+        final Object value = values[index];
+        return value == PRIMITIVE ? primitives[index] : ((PrimitiveValueType<Object>) type).toBits(value);
+    }
+
+    void add(final Type<?> type, @Nullable final Object value) {
+        ensureCapacity();
+        types[size] = type;
+        values[size++] = value;
+    }
+
+    void addBits(final Type<?> type, final long bits) {
+        ensureCapacity();
+        types[size] = type;
+        values[size] = PRIMITIVE;
+        primitives[size++] = bits;
+    }
+
+    /**
+     * Appends the value at the given index of another list, keeping its primitive representation.
+     */
+    void addFrom(final PacketValues other, final int index) {
+        ensureCapacity();
+        types[size] = other.types[index];
+        values[size] = other.values[index];
+        primitives[size++] = other.primitives[index];
+    }
+
+    void set(final int index, @Nullable final Object value) {
+        values[index] = value;
+    }
+
+    void setBits(final int index, final long bits) {
+        values[index] = PRIMITIVE;
+        primitives[index] = bits;
+    }
+
+    @SuppressWarnings("unchecked")
+    void write(final int index, final ByteBuf buffer) throws Exception {
+        final Object value = values[index];
+        if (value == PRIMITIVE) {
+            ((PrimitiveValueType<?>) types[index]).writeBits(buffer, primitives[index]);
+        } else {
+            ((Type<Object>) types[index]).write(buffer, value);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(types, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == types.length) {
+            final int capacity = size << 1;
+            types = Arrays.copyOf(types, capacity);
+            values = Arrays.copyOf(values, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+        }
+    }
+
+    String toString(final int fromIndex) {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = fromIndex; i < size; i++) {
+            if (i != fromIndex) {
+                builder.append(", ");
+            }
+            builder.append('{').append(types[i]).append(": ").append(value(i)).append('}');
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public String toString() {
+        return toString(0);
+    }
+}
@@ -27,6 +27,7 @@ import com.viaversion.viaversion.api.protocol.packet.PacketType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
+import com.viaversion.viaversion.api.type.PrimitiveValueType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import com.viaversion.viaversion.exception.CancelException;
@@ -34,20 +35,33 @@ import com.viaversion.viaversion.exception.InformativeException;
 import com.viaversion.viaversion.util.PipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class PacketWrapperImpl implements PacketWrapper {
     private static final Protocol[] PROTOCOL_ARRAY = new Protocol[0];
+    /**
+     * Packets with up to this many values are searched linearly instead of building the type index.
+     */
+    private static final int MAX_UNINDEXED_VALUES = 8;
 
-    private final Deque<PacketValue<?>> readableObjects = new ArrayDeque<>();
-    private final List<PacketValue<?>> packetValues = new ArrayList<>();
+    /**
+     * Values written by the previous protocol, read from {@link #readerIndex} on.
+     */
+    private PacketValues readableObjects = new PacketValues();
+    private PacketValues packetValues = new PacketValues();
+    /**
+     * Lazily built index of the written packet value positions by their type.
+     */
+    private Map<Type<?>, IntList> typeIndex;
+    private int readerIndex;
     private final ByteBuf inputBuffer;
     private final UserConnection userConnection;
     private boolean send = true;
@@ -56,6 +70,19 @@ public class PacketWrapperImpl implements PacketWrapper {
      */
     private PacketType packetType;
     private int id;
+    /**
+     * Protocols currently being applied in order, with the index of the one transforming the packet
+     * and the state and packet id it was called with.
+     */
+    private Protocol @Nullable [] appliedProtocols;
+    private int appliedIndex;
+    private State appliedState;
+    private int appliedId;
+    /**
+     * Protocols whose block state remapping has been done by an earlier protocol, up to and including {@link #fusedUntil}.
+     */
+    private Protocol @Nullable [] fusedProtocols;
+    private int fusedUntil;
 
     public PacketWrapperImpl(int packetId, @Nullable ByteBuf inputBuffer, UserConnection userConnection) {
         this.id = packetId;
@@ -72,40 +99,89 @@ public class PacketWrapperImpl implements PacketWrapper {
 
     @Override
     public <T> T get(Type<T> type, int index) throws Exception {
-        int currentIndex = 0;
-        for (PacketValue<?> packetValue : packetValues) {
-            if (packetValue.type() != type) {
-                continue;
-            }
-            if (currentIndex == index) {
-                //noinspection unchecked
-                return (T) packetValue.value();
-            }
-            currentIndex++;
-        }
-        throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
+        //noinspection unchecked
+        return (T) packetValues.value(position(type, index));
     }
 
     @Override
     public boolean is(Type type, int index) {
-        int currentIndex = 0;
-        for (PacketValue<?> packetValue : packetValues) {
-            if (packetValue.type() != type) {
-                continue;
+        return packetValueIndex(type, index) != -1;
+    }
+
+    private int position(final Type<?> type, final int index) throws InformativeException {
+        final int position = packetValueIndex(type, index);
+        if (position == -1) {
+            throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
+        }
+        return position;
+    }
+
+    /**
+     * Returns the position of the index-th written value of the given type, or -1 if not present.
+     */
+    private int packetValueIndex(final Type<?> type, final int index) {
+        if (packetValues.size() <= MAX_UNINDEXED_VALUES) {
+            int currentIndex = 0;
+            for (int i = 0; i < packetValues.size(); i++) {
+                if (packetValues.type(i) != type) {
+                    continue;
+                }
+                if (currentIndex == index) {
+                    return i;
+                }
+                currentIndex++;
             }
-            if (currentIndex == index) {
-                return true;
+            return -1;
+        }
+
+        if (typeIndex == null) {
+            typeIndex = new IdentityHashMap<>();
+            for (int i = 0; i < packetValues.size(); i++) {
+                addToTypeIndex(i);
             }
-            currentIndex++;
         }
-        return false;
+
+        final IntList positions = typeIndex.get(type);
+        return positions != null && index >= 0 && index < positions.size() ? positions.getInt(index) : -1;
+    }
+
+    private void addToTypeIndex(final int position) {
+        typeIndex.computeIfAbsent(packetValues.type(position), type -> new IntArrayList()).add(position);
+    }
+
+    private void addPacketValue(final Type<?> type, @Nullable final Object value) {
+        packetValues.add(type, value);
+        if (typeIndex != null) {
+            addToTypeIndex(packetValues.size() - 1);
+        }
+    }
+
+    private void addPacketValueBits(final Type<?> type, final long bits) {
+        packetValues.addBits(type, bits);
+        if (typeIndex != null) {
+            addToTypeIndex(packetValues.size() - 1);
+        }
+    }
+
+    /**
+     * Moves the values not yet read from the previous protocol to the written values.
+     */
+    private void moveReadableObjects() {
+        for (int i = readerIndex; i < readableObjects.size(); i++) {
+            packetValues.addFrom(readableObjects, i);
+            if (typeIndex != null) {
+                addToTypeIndex(packetValues.size() - 1);
+            }
+        }
+        readableObjects.clear();
+        readerIndex = 0;
     }
 
     @Override
     public boolean isReadable(Type type, int index) {
         int currentIndex = 0;
-        for (PacketValue<?> packetValue : readableObjects) {
-            if (packetValue.type().getBaseClass() != type.getBaseClass()) {
+        for (int i = readerIndex; i < readableObjects.size(); i++) {
+            if (readableObjects.type(i).getBaseClass() != type.getBaseClass()) {
                 continue;
             }
             if (currentIndex == index) {
@@ -119,23 +195,12 @@ public class PacketWrapperImpl implements PacketWrapper {
 
     @Override
     public <T> void set(Type<T> type, int index, T value) throws Exception {
-        int currentIndex = 0;
-        for (PacketValue packetValue : packetValues) {
-            if (packetValue.type() != type) {
-                continue;
-            }
-            if (currentIndex == index) {
-                packetValue.setValue(attemptTransform(type, value));
-                return;
-            }
-            currentIndex++;
-        }
-        throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
+        packetValues.set(position(type, index), attemptTransform(type, value));
     }
 
     @Override
     public <T> T read(Type<T> type) throws Exception {
-        if (readableObjects.isEmpty()) {
+        if (readerIndex == readableObjects.size()) {
             Preconditions.checkNotNull(inputBuffer, "This packet does not have an input buffer.");
             // We could in the future log input read values, but honestly for things like bulk maps, mem waste D:
             try {
@@ -145,21 +210,48 @@ public class PacketWrapperImpl implements PacketWrapper {
             }
         }
 
-        PacketValue readValue = readableObjects.poll();
-        Type<?> readType = readValue.type();
+        //noinspection unchecked
+        return (T) readableObjects.value(nextReadablePosition(type));
+    }
+
+    /**
+     * Returns the position of the next readable value, checking whether it can be read as the given type.
+     */
+    private int nextReadablePosition(final Type<?> type) throws InformativeException {
+        final int position = readerIndex++;
+        final Type<?> readType = readableObjects.type(position);
         if (readType == type
                 || (type.getBaseClass() == readType.getBaseClass()
                 && type.getOutputClass() == readType.getOutputClass())) {
-            //noinspection unchecked
-            return (T) readValue.value();
-        } else {
-            throw createInformativeException(new IOException("Unable to read type " + type.getTypeName() + ", found " + readValue.type().getTypeName()), type, readableObjects.size());
+            return position;
         }
+        throw createInformativeException(new IOException("Unable to read type " + type.getTypeName() + ", found " + readType.getTypeName()), type, readableObjects.size() - readerIndex);
     }
 
     @Override
     public <T> void write(Type<T> type, T value) {
-        packetValues.add(new PacketValue<>(type, attemptTransform(type, value)));
+        addPacketValue(type, attemptTransform(type, value));
+    }
+
+    private long readBits(final Type<?> type) throws Exception {
+        final PrimitiveValueType<?> primitiveType = (PrimitiveValueType<?>) type;
+        if (readerIndex == readableObjects.size()) {
+            Preconditions.checkNotNull(inputBuffer, "This packet does not have an input buffer.");
+            try {
+                return primitiveType.readBits(inputBuffer);
+            } catch (Exception e) {
+                throw createInformativeException(e, type, packetValues.size() + 1);
+            }
+        }
+        return readableObjects.bits(nextReadablePosition(type), primitiveType);
+    }
+
+    private long getBits(final Type<?> type, final int index) throws InformativeException {
+        return packetValues.bits(position(type, index), (PrimitiveValueType<?>) type);
+    }
+
+    private void setBits(final Type<?> type, final int index, final long bits) throws InformativeException {
+        packetValues.setBits(position(type, index), bits);
     }
 
     /**
@@ -182,6 +274,202 @@ public class PacketWrapperImpl implements PacketWrapper {
         return value;
     }
 
+    @Override
+    public int getInt(Type<Integer> type, int index) throws Exception {
+        return type instanceof PrimitiveValueType ? (int) getBits(type, index) : get(type, index);
+    }
+
+    @Override
+    public void setInt(Type<Integer> type, int index, int value) throws Exception {
+        if (type instanceof PrimitiveValueType) {
+            setBits(type, index, value);
+        } else {
+            set(type, index, value);
+        }
+    }
+
+    @Override
+    public int readInt(Type<Integer> type) throws Exception {
+        return type instanceof PrimitiveValueType ? (int) readBits(type) : read(type);
+    }
+
+    @Override
+    public void writeInt(Type<Integer> type, int value) {
+        if (type instanceof PrimitiveValueType) {
+            addPacketValueBits(type, value);
+        } else {
+            write(type, value);
+        }
+    }
+
+    @Override
+    public long getLong(Type<Long> type, int index) throws Exception {
+        return type instanceof PrimitiveValueType ? getBits(type, index) : get(type, index);
+    }
+
+    @Override
+    public void setLong(Type<Long> type, int index, long value) throws Exception {
+        if (type instanceof PrimitiveValueType) {
+            setBits(type, index, value);
+        } else {
+            set(type, index, value);
+        }
+    }
+
+    @Override
+    public long readLong(Type<Long> type) throws Exception {
+        return type instanceof PrimitiveValueType ? readBits(type) : read(type);
+    }
+
+    @Override
+    public void writeLong(Type<Long> type, long value) {
+        if (type instanceof PrimitiveValueType) {
+            addPacketValueBits(type, value);
+        } else {
+            write(type, value);
+        }
+    }
+
+    @Override
+    public short getShort(Type<Short> type, int index) throws Exception {
+        return type instanceof PrimitiveValueType ? (short) getBits(type, index) : get(type, index);
+    }
+
+    @Override
+    public void setShort(Type<Short> type, int index, short value) throws Exception {
+        if (type instanceof PrimitiveValueType) {
+            setBits(type, index, value);
+        } else {
+            set(type, index, value);
+        }
+    }
+
+    @Override
+    public short readShort(Type<Short> type) throws Exception {
+        return type instanceof PrimitiveValueType ? (short) readBits(type) : read(type);
+    }
+
+    @Override
+    public void writeShort(Type<Short> type, short value) {
+        if (type instanceof PrimitiveValueType) {
+            addPacketValueBits(type, value);
+        } else {
+            write(type, value);
+        }
+    }
+
+    @Override
+    public byte getByte(Type<Byte> type, int index) throws Exception {
+        return type instanceof PrimitiveValueType ? (byte) getBits(type, index) : get(type, index);
+    }
+
+    @Override
+    public void setByte(Type<Byte> type, int index, byte value) throws Exception {
+        if (type instanceof PrimitiveValueType) {
+            setBits(type, index, value);
+        } else {
+            set(type, index, value);
+        }
+    }
+
+    @Override
+    public byte readByte(Type<Byte> type) throws Exception {
+        return type instanceof PrimitiveValueType ? (byte) readBits(type) : read(type);
+    }
+
+    @Override
+    public void writeByte(Type<Byte> type, byte value) {
+        if (type instanceof PrimitiveValueType) {
+            addPacketValueBits(type, value);
+        } else {
+            write(type, value);
+        }
+    }
+
+    @Override
+    public float getFloat(Type<Float> type, int index) throws Exception {
+        return type instanceof PrimitiveValueType ? Float.intBitsToFloat((int) getBits(type, index)) : get(type, index);
+    }
+
+    @Override
+    public void setFloat(Type<Float> type, int index, float value) throws Exception {
+        if (type instanceof PrimitiveValueType) {
+            setBits(type, index, Float.floatToRawIntBits(value));
+        } else {
+            set(type, index, value);
+        }
+    }
+
+    @Override
+    public float readFloat(Type<Float> type) throws Exception {
+        return type instanceof PrimitiveValueType ? Float.intBitsToFloat((int) readBits(type)) : read(type);
+    }
+
+    @Override
+    public void writeFloat(Type<Float> type, float value) {
+        if (type instanceof PrimitiveValueType) {
+            addPacketValueBits(type, Float.floatToRawIntBits(value));
+        } else {
+            write(type, value);
+        }
+    }
+
+    @Override
+    public double getDouble(Type<Double> type, int index) throws Exception {
+        return type instanceof PrimitiveValueType ? Double.longBitsToDouble(getBits(type, index)) : get(type, index);
+    }
+
+    @Override
+    public void setDouble(Type<Double> type, int index, double value) throws Exception {
+        if (type instanceof PrimitiveValueType) {
+            setBits(type, index, Double.doubleToRawLongBits(value));
+        } else {
+            set(type, index, value);
+        }
+    }
+
+    @Override
+    public double readDouble(Type<Double> type) throws Exception {
+        return type instanceof PrimitiveValueType ? Double.longBitsToDouble(readBits(type)) : read(type);
+    }
+
+    @Override
+    public void writeDouble(Type<Double> type, double value) {
+        if (type instanceof PrimitiveValueType) {
+            addPacketValueBits(type, Double.doubleToRawLongBits(value));
+        } else {
+            write(type, value);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Type<Boolean> type, int index) throws Exception {
+        return type instanceof PrimitiveValueType ? getBits(type, index) != 0 : get(type, index);
+    }
+
+    @Override
+    public void setBoolean(Type<Boolean> type, int index, boolean value) throws Exception {
+        if (type instanceof PrimitiveValueType) {
+            setBits(type, index, value ? 1 : 0);
+        } else {
+            set(type, index, value);
+        }
+    }
+
+    @Override
+    public boolean readBoolean(Type<Boolean> type) throws Exception {
+        return type instanceof PrimitiveValueType ? readBits(type) != 0 : read(type);
+    }
+
+    @Override
+    public void writeBoolean(Type<Boolean> type, boolean value) {
+        if (type instanceof PrimitiveValueType) {
+            addPacketValueBits(type, value ? 1 : 0);
+        } else {
+            write(type, value);
+        }
+    }
+
     @Override
     public <T> T passthrough(Type<T> type) throws Exception {
         T value = read(type);
@@ -192,8 +480,7 @@ public class PacketWrapperImpl implements PacketWrapper {
     @Override
     public void passthroughAll() throws Exception {
         // Copy previous objects
-        packetValues.addAll(readableObjects);
-        readableObjects.clear();
+        moveReadableObjects();
         // If the buffer has readable bytes, copy them.
         if (inputBuffer.isReadable()) {
             passthrough(Type.REMAINING_BYTES);
@@ -205,19 +492,14 @@ public class PacketWrapperImpl implements PacketWrapper {
         if (id != -1) {
             Type.VAR_INT.writePrimitive(buffer, id);
         }
-        if (!readableObjects.isEmpty()) {
-            packetValues.addAll(readableObjects);
-            readableObjects.clear();
-        }
+        moveReadableObjects();
 
-        int index = 0;
-        for (final PacketValue<?> packetValue : packetValues) {
+        for (int i = 0; i < packetValues.size(); i++) {
             try {
-                packetValue.write(buffer);
+                packetValues.write(i, buffer);
             } catch (final Exception e) {
-                throw createInformativeException(e, packetValue.type(), index);
+                throw createInformativeException(e, packetValues.type(i), i);
             }
-            index++;
         }
         writeRemaining(buffer);
     }
@@ -237,12 +519,14 @@ public class PacketWrapperImpl implements PacketWrapper {
             inputBuffer.clear();
         }
         readableObjects.clear(); // :(
+        readerIndex = 0;
     }
 
     @Override
     public void clearPacket() {
         clearInputBuffer();
         packetValues.clear();
+        typeIndex = null;
     }
 
     private void writeRemaining(ByteBuf output) {
@@ -407,10 +691,25 @@ public class PacketWrapperImpl implements PacketWrapper {
         return apply(direction, state, index, pipeline.toArray(PROTOCOL_ARRAY), false);
     }
 
+    /**
+     * Applies the given protocols in order, without copying the array first.
+     *
+     * @param direction direction of the packet
+     * @param state     protocol state
+     * @param pipeline  protocols to apply, not modified during the transformation
+     * @return this packet wrapper
+     * @throws Exception if a protocol fails to transform the packet
+     */
+    public PacketWrapperImpl apply(Direction direction, State state, Protocol[] pipeline) throws Exception {
+        fusedProtocols = null;
+        return apply(direction, state, 0, pipeline, false);
+    }
+
     private PacketWrapperImpl apply(Direction direction, State state, int index, Protocol[] pipeline, boolean reverse) throws Exception {
         // Reset the reader after every transformation for the packetWrapper, so it can be recycled across packets
         State updatedState = state; // The state might change while transforming, so we need to check for that
         if (reverse) {
+            appliedProtocols = null;
             for (int i = index; i >= 0; i--) {
                 pipeline[i].transform(direction, updatedState, this);
                 resetReader();
@@ -420,16 +719,78 @@ public class PacketWrapperImpl implements PacketWrapper {
             }
         } else {
             for (int i = index; i < pipeline.length; i++) {
+                appliedProtocols = pipeline;
+                appliedIndex = i;
+                appliedState = updatedState;
+                appliedId = getId();
                 pipeline[i].transform(direction, updatedState, this);
                 resetReader();
                 if (this.packetType != null) {
                     updatedState = this.packetType.state();
                 }
             }
+            appliedProtocols = null;
         }
         return this;
     }
 
+    /**
+     * Returns the protocols currently being applied in order, or null if the packet is not being transformed
+     * by a forward pipeline.
+     *
+     * @return protocols currently being applied, not to be modified
+     */
+    public Protocol @Nullable [] appliedProtocols() {
+        return appliedProtocols;
+    }
+
+    /**
+     * Returns the index of the protocol currently transforming the packet in {@link #appliedProtocols()}.
+     *
+     * @return index of the protocol currently transforming the packet
+     */
+    public int appliedIndex() {
+        return appliedIndex;
+    }
+
+    /**
+     * Returns the state the protocol currently transforming the packet was called with.
+     *
+     * @return state of the current transformation
+     */
+    public State appliedState() {
+        return appliedState;
+    }
+
+    /**
+     * Returns the packet id before the transformation by the protocol currently transforming the packet.
+     *
+     * @return unmapped packet id of the current transformation
+     */
+    public int appliedId() {
+        return appliedId;
+    }
+
+    /**
+     * Marks the block states of the packet as already remapped for the applied protocols up to and including the given index.
+     *
+     * @param index index of the last protocol in {@link #appliedProtocols()} whose block state remapping has been done
+     */
+    public void setBlockStatesFusedUntil(int index) {
+        Preconditions.checkState(appliedProtocols != null, "Packet is not being transformed");
+        fusedProtocols = appliedProtocols;
+        fusedUntil = index;
+    }
+
+    /**
+     * Returns whether the block states of the packet have already been remapped for the protocol currently transforming it.
+     *
+     * @return whether the current protocol has to skip its block state remapping
+     */
+    public boolean areBlockStatesFused() {
+        return fusedProtocols != null && fusedProtocols == appliedProtocols && appliedIndex <= fusedUntil;
+    }
+
     @Override
     public boolean isCancelled() {
         return !this.send;
@@ -447,11 +808,18 @@ public class PacketWrapperImpl implements PacketWrapper {
 
     @Override
     public void resetReader() {
-        // Move all packet values to the readable for next packet.
-        for (int i = packetValues.size() - 1; i >= 0; i--) {
-            this.readableObjects.addFirst(this.packetValues.get(i));
+        // Move all packet values to the readable for next packet, followed by the ones that haven't been read.
+        // Swap the lists instead of copying the values over.
+        for (int i = readerIndex; i < readableObjects.size(); i++) {
+            packetValues.addFrom(readableObjects, i);
         }
-        this.packetValues.clear();
+
+        final PacketValues values = readableObjects;
+        readableObjects = packetValues;
+        packetValues = values;
+        packetValues.clear();
+        readerIndex = 0;
+        typeIndex = null;
     }
 
     @Override
@@ -560,54 +928,7 @@ public class PacketWrapperImpl implements PacketWrapper {
                 "type=" + packetType +
                 ", id=" + id +
                 ", values=" + packetValues +
-                ", readable=" + readableObjects +
+                ", readable=" + readableObjects.toString(readerIndex) +
                 '}';
     }
-
-    public static final class PacketValue<T> {
-        private final Type<T> type;
-        private T value;
-
-        private PacketValue(final Type<T> type, @Nullable final T value) {
-            this.type = type;
-            this.value = value;
-        }
-
-        public Type<T> type() {
-            return type;
-        }
-
-        public @Nullable Object value() {
-            return value;
-        }
-
-        public void write(final ByteBuf buffer) throws Exception {
-            type.write(buffer, value);
-        }
-
-        public void setValue(@Nullable final T value) {
-            this.value = value;
-        }
-
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            final PacketValue<?> that = (PacketValue<?>) o;
-            if (!type.equals(that.type)) return false;
-            return Objects.equals(value, that.value);
-        }
-
-        @Override
-        public int hashCode() {
-            int result = type.hashCode();
-            result = 31 * result + (value != null ? value.hashCode() : 0);
-            return result;
-        }
-
-        @Override
-        public String toString() {
-            return "{" + type + ": " + value + "}";
-        }
-    }
 }
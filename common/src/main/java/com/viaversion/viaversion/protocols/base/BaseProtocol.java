@@ -19,10 +19,12 @@ package com.viaversion.viaversion.protocols.base;
 
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.ProtocolInfo;
+import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.platform.providers.ViaProviders;
 import com.viaversion.viaversion.api.protocol.AbstractProtocol;
 import com.viaversion.viaversion.api.protocol.Protocol;
 import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.ProtocolManager;
 import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.Direction;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
@@ -30,8 +32,12 @@ import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import com.viaversion.viaversion.api.protocol.version.VersionProvider;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.protocol.ProtocolManagerImpl;
+import io.netty.channel.Channel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class BaseProtocol extends AbstractProtocol {
 
@@ -66,11 +72,24 @@ public class BaseProtocol extends AbstractProtocol {
             ProtocolPipeline pipeline = wrapper.user().getProtocolInfo().getPipeline();
             if (protocolPath != null) {
                 List<Protocol> protocols = new ArrayList<>(protocolPath.size());
+                List<CompletableFuture<Void>> mappingFutures = new ArrayList<>();
+                ProtocolManager protocolManager = Via.getManager().getProtocolManager();
                 for (ProtocolPathEntry entry : protocolPath) {
                     protocols.add(entry.protocol());
 
                     // Ensure mapping data has already been loaded
-                    Via.getManager().getProtocolManager().completeMappingDataLoading(entry.protocol().getClass());
+                    if (protocolManager instanceof ProtocolManagerImpl) {
+                        CompletableFuture<Void> future = ((ProtocolManagerImpl) protocolManager).mappingDataLoadingFuture(entry.protocol().getClass());
+                        if (future != null) {
+                            mappingFutures.add(future);
+                        }
+                    } else {
+                        protocolManager.completeMappingDataLoading(entry.protocol().getClass());
+                    }
+                }
+
+                if (!mappingFutures.isEmpty()) {
+                    awaitMappingData(wrapper.user(), mappingFutures);
                 }
 
                 // Add protocols to pipeline
@@ -98,6 +117,23 @@ public class BaseProtocol extends AbstractProtocol {
         });
     }
 
+    /**
+     * Holds back further packets of the connection until the mapping data has been loaded, so that only
+     * this connection waits for it. Blocks if the connection can't hold back its packets.
+     */
+    private static void awaitMappingData(UserConnection connection, List<CompletableFuture<Void>> futures) {
+        CompletableFuture<Void> future = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        Channel channel = connection.getChannel();
+        if (!(connection instanceof UserConnectionImpl) || channel == null || connection.isClientSide()) {
+            future.join();
+            return;
+        }
+
+        UserConnectionImpl connectionImpl = (UserConnectionImpl) connection;
+        connectionImpl.pauseServerbound();
+        future.whenComplete((v, throwable) -> channel.eventLoop().execute(connectionImpl::resumeServerbound));
+    }
+
     @Override
     public boolean isBaseProtocol() {
         return true;
@@ -118,4 +154,12 @@ public class BaseProtocol extends AbstractProtocol {
             }
         }
     }
+
+    @Override
+    public int passthroughPacketId(Direction direction, State state, int unmappedId) {
+        if (direction == Direction.SERVERBOUND && state == State.HANDSHAKE) {
+            return -1;
+        }
+        return mappedPassthroughPacketId(direction, state, unmappedId);
+    }
 }
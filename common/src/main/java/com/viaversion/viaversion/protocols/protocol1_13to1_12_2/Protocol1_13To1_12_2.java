@@ -30,6 +30,7 @@ import com.viaversion.viaversion.api.minecraft.item.DataItem;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.platform.providers.ViaProviders;
 import com.viaversion.viaversion.api.protocol.AbstractProtocol;
+import com.viaversion.viaversion.api.protocol.packet.PacketTemplate;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
@@ -63,6 +64,7 @@ import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.TabCompl
 import com.viaversion.viaversion.rewriter.SoundRewriter;
 import com.viaversion.viaversion.util.ChatColorUtil;
 import com.viaversion.viaversion.util.GsonUtil;
+import io.netty.buffer.ByteBuf;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -115,48 +117,38 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
         wrapper.write(Type.INT, position.z());
     };
 
+    // The fake commands and tags never change, so they are only serialized once
+    private static final PacketTemplate DECLARE_COMMANDS = PacketTemplate.of(ClientboundPackets1_13.DECLARE_COMMANDS, buffer -> {
+        Type.VAR_INT.writePrimitive(buffer, 2); // Size
+        // Write root node
+        buffer.writeByte(0); // Mark as command
+        Type.VAR_INT_ARRAY_PRIMITIVE.write(buffer, new int[]{1}); // 1 child at index 1
+
+        // Write arg node
+        buffer.writeByte(0x02 | 0x04 | 0x10); // Mark as command
+        Type.VAR_INT_ARRAY_PRIMITIVE.write(buffer, new int[0]); // No children
+        // Extra data
+        Type.STRING.write(buffer, "args"); // Arg name
+        Type.STRING.write(buffer, "brigadier:string");
+        Type.VAR_INT.writePrimitive(buffer, 2); // Greedy
+        Type.STRING.write(buffer, "minecraft:ask_server"); // Ask server
+
+        Type.VAR_INT.writePrimitive(buffer, 0); // Root node index
+    });
+
+    private static final PacketTemplate TAGS = PacketTemplate.of(ClientboundPackets1_13.TAGS, buffer -> {
+        writeTags(buffer, MAPPINGS.getBlockTags());
+        writeTags(buffer, MAPPINGS.getItemTags());
+        writeTags(buffer, MAPPINGS.getFluidTags());
+    });
+
     public static final PacketHandler SEND_DECLARE_COMMANDS_AND_TAGS =
             w -> {
                 // Send fake declare commands
-                w.create(ClientboundPackets1_13.DECLARE_COMMANDS, wrapper -> {
-                    wrapper.write(Type.VAR_INT, 2); // Size
-                    // Write root node
-                    wrapper.write(Type.BYTE, (byte) 0); // Mark as command
-                    wrapper.write(Type.VAR_INT_ARRAY_PRIMITIVE, new int[]{1}); // 1 child at index 1
-
-                    // Write arg node
-                    wrapper.write(Type.BYTE, (byte) (0x02 | 0x04 | 0x10)); // Mark as command
-                    wrapper.write(Type.VAR_INT_ARRAY_PRIMITIVE, new int[0]); // No children
-                    // Extra data
-                    wrapper.write(Type.STRING, "args"); // Arg name
-                    wrapper.write(Type.STRING, "brigadier:string");
-                    wrapper.write(Type.VAR_INT, 2); // Greedy
-                    wrapper.write(Type.STRING, "minecraft:ask_server"); // Ask server
-
-                    wrapper.write(Type.VAR_INT, 0); // Root node index
-                }).scheduleSend(Protocol1_13To1_12_2.class);
+                DECLARE_COMMANDS.scheduleSend(w.user(), Protocol1_13To1_12_2.class);
 
                 // Send tags packet
-                w.create(ClientboundPackets1_13.TAGS, wrapper -> {
-                    wrapper.write(Type.VAR_INT, MAPPINGS.getBlockTags().size()); // block tags
-                    for (Map.Entry<String, int[]> tag : MAPPINGS.getBlockTags().entrySet()) {
-                        wrapper.write(Type.STRING, tag.getKey());
-                        // Needs copy as other protocols may modify it
-                        wrapper.write(Type.VAR_INT_ARRAY_PRIMITIVE, tag.getValue());
-                    }
-                    wrapper.write(Type.VAR_INT, MAPPINGS.getItemTags().size()); // item tags
-                    for (Map.Entry<String, int[]> tag : MAPPINGS.getItemTags().entrySet()) {
-                        wrapper.write(Type.STRING, tag.getKey());
-                        // Needs copy as other protocols may modify it
-                        wrapper.write(Type.VAR_INT_ARRAY_PRIMITIVE, tag.getValue());
-                    }
-                    wrapper.write(Type.VAR_INT, MAPPINGS.getFluidTags().size()); // fluid tags
-                    for (Map.Entry<String, int[]> tag : MAPPINGS.getFluidTags().entrySet()) {
-                        wrapper.write(Type.STRING, tag.getKey());
-                        // Needs copy as other protocols may modify it
-                        wrapper.write(Type.VAR_INT_ARRAY_PRIMITIVE, tag.getValue());
-                    }
-                }).scheduleSend(Protocol1_13To1_12_2.class);
+                TAGS.scheduleSend(w.user(), Protocol1_13To1_12_2.class);
             };
 
     @Override
@@ -928,4 +920,12 @@ public class Protocol1_13To1_12_2 extends AbstractProtocol<ClientboundPackets1_1
     public ComponentRewriter1_13 getComponentRewriter() {
         return componentRewriter;
     }
+
+    private static void writeTags(ByteBuf buffer, Map<String, int[]> tags) throws Exception {
+        Type.VAR_INT.writePrimitive(buffer, tags.size());
+        for (Map.Entry<String, int[]> tag : tags.entrySet()) {
+            Type.STRING.write(buffer, tag.getKey());
+            Type.VAR_INT_ARRAY_PRIMITIVE.write(buffer, tag.getValue());
+        }
+    }
 }
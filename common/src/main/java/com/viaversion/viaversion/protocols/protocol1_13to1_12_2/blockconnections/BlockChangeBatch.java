@@ -0,0 +1,108 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.minecraft.BlockChangeRecord1_8;
+import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ClientboundPackets1_13;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
+import com.viaversion.viaversion.util.LongObjectHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects block changes by chunk to send them as one multi block change per chunk instead of one packet per block.
+ * Later changes of the same position replace earlier ones.
+ */
+public final class BlockChangeBatch {
+    private final LongObjectHashMap<ChunkChanges> chunks = new LongObjectHashMap<>();
+    private final List<ChunkChanges> chunkOrder = new ArrayList<>();
+
+    public void add(int x, int y, int z, int blockState) {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        long chunkKey = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+        ChunkChanges changes = chunks.get(chunkKey);
+        if (changes == null) {
+            changes = new ChunkChanges(chunkX, chunkZ);
+            chunks.put(chunkKey, changes);
+            chunkOrder.add(changes);
+        }
+
+        changes.blockStates.put((y << 8) | ((x & 0xF) << 4) | (z & 0xF), blockState);
+    }
+
+    public boolean isEmpty() {
+        return chunkOrder.isEmpty();
+    }
+
+    /**
+     * Sends and clears the collected block changes.
+     *
+     * @param user user connection
+     * @throws Exception if sending the packets fails
+     */
+    public void send(UserConnection user) throws Exception {
+        for (ChunkChanges changes : chunkOrder) {
+            changes.send(user);
+        }
+        chunks.clear();
+        chunkOrder.clear();
+    }
+
+    private static final class ChunkChanges {
+        private final Int2IntLinkedOpenHashMap blockStates = new Int2IntLinkedOpenHashMap();
+        private final int chunkX;
+        private final int chunkZ;
+
+        private ChunkChanges(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private void send(UserConnection user) throws Exception {
+            if (blockStates.size() == 1) {
+                Int2IntMap.Entry entry = blockStates.int2IntEntrySet().iterator().next();
+                int key = entry.getIntKey();
+                PacketWrapper blockChange = PacketWrapper.create(ClientboundPackets1_13.BLOCK_CHANGE, null, user);
+                blockChange.write(Type.POSITION1_8, new Position((chunkX << 4) + ((key >> 4) & 0xF), key >> 8, (chunkZ << 4) + (key & 0xF)));
+                blockChange.write(Type.VAR_INT, entry.getIntValue());
+                blockChange.send(Protocol1_13To1_12_2.class);
+                return;
+            }
+
+            BlockChangeRecord1_8[] records = new BlockChangeRecord1_8[blockStates.size()];
+            int i = 0;
+            for (Int2IntMap.Entry entry : blockStates.int2IntEntrySet()) {
+                int key = entry.getIntKey();
+                records[i++] = new BlockChangeRecord1_8((key >> 4) & 0xF, key >> 8, key & 0xF, entry.getIntValue());
+            }
+
+            PacketWrapper multiBlockChange = PacketWrapper.create(ClientboundPackets1_13.MULTI_BLOCK_CHANGE, null, user);
+            multiBlockChange.write(Type.INT, chunkX);
+            multiBlockChange.write(Type.INT, chunkZ);
+            multiBlockChange.write(Type.BLOCK_CHANGE_RECORD_ARRAY, records);
+            multiBlockChange.send(Protocol1_13To1_12_2.class);
+        }
+    }
+}
@@ -64,6 +64,19 @@ public final class ConnectionData {
     }
 
     public static void update(UserConnection user, Position position) throws Exception {
+        BlockChangeBatch changes = new BlockChangeBatch();
+        update(user, position, changes);
+        changes.send(user);
+    }
+
+    /**
+     * Updates the connections of the blocks surrounding the given position, adding the changed blocks to the batch.
+     *
+     * @param user     user connection
+     * @param position position of the changed block
+     * @param changes  batch to collect changed neighbours in
+     */
+    public static void update(UserConnection user, Position position, BlockChangeBatch changes) {
         Boolean inSync = null;
 
         for (BlockFace face : BlockFace.values()) {
@@ -86,11 +99,7 @@ public final class ConnectionData {
             }
 
             updateBlockStorage(user, pos.x(), pos.y(), pos.z(), newBlockState);
-
-            PacketWrapper blockUpdatePacket = PacketWrapper.create(ClientboundPackets1_13.BLOCK_CHANGE, null, user);
-            blockUpdatePacket.write(Type.POSITION1_8, pos);
-            blockUpdatePacket.write(Type.VAR_INT, newBlockState);
-            blockUpdatePacket.send(Protocol1_13To1_12_2.class);
+            changes.add(pos.x(), pos.y(), pos.z(), newBlockState);
         }
     }
 
@@ -129,12 +138,15 @@ public final class ConnectionData {
 
             DataPalette blocks = section.palette(PaletteType.BLOCKS);
 
+            // Look up the handlers once per palette entry
+            int paletteSize = blocks.size();
+            ConnectionHandler[] paletteHandlers = new ConnectionHandler[paletteSize];
             boolean willConnect = false;
-            for (int p = 0; p < blocks.size(); p++) {
-                int id = blocks.idByIndex(p);
-                if (ConnectionData.connects(id)) {
+            for (int p = 0; p < paletteSize; p++) {
+                ConnectionHandler handler = connectionHandlerMap.get(blocks.idByIndex(p));
+                if (handler != null) {
+                    paletteHandlers[p] = handler;
                     willConnect = true;
-                    break;
                 }
             }
             if (!willConnect) {
@@ -144,12 +156,15 @@ public final class ConnectionData {
             int yOff = s << 4;
 
             for (int idx = 0; idx < ChunkSection.SIZE; idx++) {
-                int id = blocks.idAt(idx);
-                ConnectionHandler handler = ConnectionData.getConnectionHandler(id);
+                // Connected ids are only ever added to the end of the palette at already visited positions
+                int paletteIndex = blocks.paletteIndexAt(idx);
+                ConnectionHandler handler = paletteIndex < paletteSize ? paletteHandlers[paletteIndex] : null;
                 if (handler == null) {
                     continue;
                 }
 
+                int id = blocks.idByIndex(paletteIndex);
+
                 Position position = new Position(xOff + ChunkSection.xFromIndex(idx), yOff + ChunkSection.yFromIndex(idx), zOff + ChunkSection.zFromIndex(idx));
                 int connectedId = handler.connect(user, position, id);
                 if (connectedId != id) {
@@ -19,6 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.data;
 
 import com.google.common.collect.ObjectArrays;
 import com.google.gson.reflect.TypeToken;
+import com.viaversion.viaversion.api.data.MappingDataLoader;
 import com.viaversion.viaversion.util.GsonUtil;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -35,8 +36,7 @@ public class BlockIdData {
     public static Int2ObjectMap<String> numberIdToString;
 
     public static void init() {
-        InputStream stream = MappingData.class.getClassLoader()
-                .getResourceAsStream("assets/viaversion/data/blockIds1.12to1.13.json");
+        InputStream stream = MappingDataLoader.getResource("blockIds1.12to1.13.json");
         try (InputStreamReader reader = new InputStreamReader(stream)) {
             Map<String, String[]> map = GsonUtil.getGson().fromJson(
                     reader,
@@ -55,8 +55,7 @@ public class BlockIdData {
             e.printStackTrace();
         }
 
-        InputStream blockS = MappingData.class.getClassLoader()
-                .getResourceAsStream("assets/viaversion/data/blockNumberToString1.12.json");
+        InputStream blockS = MappingDataLoader.getResource("blockNumberToString1.12.json");
         try (InputStreamReader blockR = new InputStreamReader(blockS)) {
             Map<Integer, String> map = GsonUtil.getGson().fromJson(
                     blockR,
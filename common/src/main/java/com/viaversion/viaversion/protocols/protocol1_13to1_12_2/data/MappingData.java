@@ -92,13 +92,12 @@ public class MappingData extends MappingDataBase {
         }
 
         Map<String, String> translationMappingData = GsonUtil.getGson().fromJson(
-                new InputStreamReader(MappingData.class.getClassLoader().getResourceAsStream("assets/viaversion/data/mapping-lang-1.12-1.13.json")),
+                new InputStreamReader(MappingDataLoader.getResource("mapping-lang-1.12-1.13.json")),
                 new TypeToken<Map<String, String>>() {
                 }.getType());
 
         String[] unmappedTranslationLines;
-        try (Reader reader = new InputStreamReader(MappingData.class.getClassLoader()
-                .getResourceAsStream("assets/viaversion/data/en_US.properties"), StandardCharsets.UTF_8)) {
+        try (Reader reader = new InputStreamReader(MappingDataLoader.getResource("en_US.properties"), StandardCharsets.UTF_8)) {
             unmappedTranslationLines = CharStreams.toString(reader).split("\n");
         } catch (IOException e) {
             throw new RuntimeException(e);
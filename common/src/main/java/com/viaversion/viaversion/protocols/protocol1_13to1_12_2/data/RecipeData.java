@@ -18,6 +18,7 @@
 package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.data;
 
 import com.google.gson.reflect.TypeToken;
+import com.viaversion.viaversion.api.data.MappingDataLoader;
 import com.viaversion.viaversion.api.minecraft.item.DataItem;
 import com.viaversion.viaversion.util.GsonUtil;
 import java.io.IOException;
@@ -29,8 +30,7 @@ public class RecipeData {
     public static Map<String, Recipe> recipes;
 
     public static void init() {
-        InputStream stream = MappingData.class.getClassLoader()
-                .getResourceAsStream("assets/viaversion/data/itemrecipes1_12_2to1_13.json");
+        InputStream stream = MappingDataLoader.getResource("itemrecipes1_12_2to1_13.json");
         InputStreamReader reader = new InputStreamReader(stream);
         try {
             recipes = GsonUtil.getGson().fromJson(
@@ -40,6 +40,7 @@ import com.viaversion.viaversion.protocols.protocol1_12_1to1_12.ClientboundPacke
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ClientboundPackets1_13;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ServerboundPackets1_13;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.BlockChangeBatch;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.ConnectionData;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.ConnectionHandler;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.data.NamedSoundRewriter;
@@ -247,13 +248,15 @@ public class WorldPackets {
                         wrapper.send(Protocol1_13To1_12_2.class);
                         wrapper.cancel();
 
+                        BlockChangeBatch changes = new BlockChangeBatch();
                         for (BlockChangeRecord record : records) {
                             Position position = new Position(
                                     record.getSectionX() + (chunkX * 16),
                                     record.getY(),
                                     record.getSectionZ() + (chunkZ * 16));
-                            ConnectionData.update(userConnection, position);
+                            ConnectionData.update(userConnection, position, changes);
                         }
+                        changes.send(userConnection);
                     }
                 });
             }
@@ -295,9 +298,11 @@ public class WorldPackets {
                     wrapper.send(Protocol1_13To1_12_2.class);
                     wrapper.cancel();
 
+                    BlockChangeBatch changes = new BlockChangeBatch();
                     for (int i = 0; i < recordCount; i++) {
-                        ConnectionData.update(userConnection, records[i]);
+                        ConnectionData.update(userConnection, records[i], changes);
                     }
+                    changes.send(userConnection);
                 });
             }
         });
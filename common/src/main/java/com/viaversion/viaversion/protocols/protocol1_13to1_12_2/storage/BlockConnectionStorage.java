@@ -18,21 +18,16 @@
 package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
 
 import com.google.common.collect.EvictingQueue;
-import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.StorableObject;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Queue;
-
 import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.util.LongObjectHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import java.util.Arrays;
+import java.util.Queue;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class BlockConnectionStorage implements StorableObject {
-    private static Constructor<?> fastUtilLongObjectHashMap;
-
-    private final Map<Long, SectionData> blockStorage = createLongObjectMap();
+    private final LongObjectHashMap<SectionData> blockStorage = new LongObjectHashMap<>();
     @SuppressWarnings("UnstableApiUsage")
     private final Queue<Position> modified = EvictingQueue.create(5);
 
@@ -40,16 +35,6 @@ public class BlockConnectionStorage implements StorableObject {
     private long lastIndex = -1;
     private SectionData lastSection;
 
-    static {
-        try {
-            //noinspection StringBufferReplaceableByString - prevent relocation
-            String className = new StringBuilder("it").append(".unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap").toString();
-            fastUtilLongObjectHashMap = Class.forName(className).getConstructor();
-            Via.getPlatform().getLogger().info("Using FastUtil Long2ObjectOpenHashMap for block connections");
-        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
-        }
-    }
-
     public static void init() {
     }
 
@@ -62,12 +47,13 @@ public class BlockConnectionStorage implements StorableObject {
                 return;
             }
 
-            blockStorage.put(index, section = new SectionData());
+            section = new SparseSectionData();
+            blockStorage.put(index, section);
             lastSection = section;
             lastIndex = index;
         }
 
-        section.setBlockAt(x, y, z, blockState);
+        setBlockAt(index, section, x, y, z, blockState);
     }
 
     public int get(int x, int y, int z) {
@@ -77,7 +63,7 @@ public class BlockConnectionStorage implements StorableObject {
             return 0;
         }
 
-        return section.blockAt(x, y, z);
+        return section.blockAt(encodeBlockPos(x, y, z));
     }
 
     public void remove(int x, int y, int z) {
@@ -87,8 +73,7 @@ public class BlockConnectionStorage implements StorableObject {
             return;
         }
 
-        section.setBlockAt(x, y, z, 0);
-
+        section = setBlockAt(index, section, x, y, z, 0);
         if (section.nonEmptyBlocks() == 0) {
             removeSection(index);
         }
@@ -117,6 +102,26 @@ public class BlockConnectionStorage implements StorableObject {
         modified.clear();
     }
 
+    /**
+     * Returns the number of stored sections.
+     *
+     * @return number of stored sections
+     */
+    public int sections() {
+        return blockStorage.size();
+    }
+
+    /**
+     * Returns an estimate of the heap used by the stored sections in bytes.
+     *
+     * @return estimated memory usage in bytes
+     */
+    public long memoryUsage() {
+        long[] usage = new long[1];
+        blockStorage.forEachValue(section -> usage[0] += section.memoryUsage());
+        return usage[0];
+    }
+
     public void unloadChunk(int x, int z) {
         for (int y = 0; y < 16; y++) {
             unloadSection(x, y, z);
@@ -147,46 +152,271 @@ public class BlockConnectionStorage implements StorableObject {
         return (((x >> 4) & 0x3FFFFFFL) << 38) | (((y >> 4) & 0xFFFL) << 26) | ((z >> 4) & 0x3FFFFFFL);
     }
 
-    private <T> Map<Long, T> createLongObjectMap() {
-        if (fastUtilLongObjectHashMap != null) {
-            try {
-                //noinspection unchecked
-                return (Map<Long, T>) fastUtilLongObjectHashMap.newInstance();
-            } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-                e.printStackTrace();
+    private SectionData setBlockAt(long index, SectionData section, int x, int y, int z, int blockState) {
+        SectionData newSection = section.setBlockAt(encodeBlockPos(x, y, z), blockState);
+        if (newSection != section) {
+            // Representation changed
+            blockStorage.put(index, newSection);
+            if (lastIndex == index) {
+                lastSection = newSection;
             }
         }
-        return new HashMap<>();
+        return newSection;
     }
 
-    private static final class SectionData {
-        private final short[] blockStates = new short[4096];
-        private short nonEmptyBlocks;
+    private static int encodeBlockPos(int x, int y, int z) {
+        return ((y & 0xF) << 8) | ((x & 0xF) << 4) | (z & 0xF);
+    }
+
+    /**
+     * Block states of a section, switching between sparse, paletted and direct storage depending on the content.
+     */
+    private interface SectionData {
+
+        int blockAt(int index);
+
+        /**
+         * Sets the block state at the given index.
+         *
+         * @param index      block index
+         * @param blockState block state
+         * @return section to use from now on, which may have changed representation
+         */
+        SectionData setBlockAt(int index, int blockState);
+
+        int nonEmptyBlocks();
+
+        long memoryUsage();
+    }
+
+    /**
+     * Sorted block index and state pairs for sections with only a few stored blocks.
+     */
+    private static final class SparseSectionData implements SectionData {
+        private static final int MAX_SIZE = 256;
+        private short[] indices = new short[8];
+        private short[] blockStates = new short[8];
+        private int size;
 
-        public int blockAt(int x, int y, int z) {
-            return blockStates[encodeBlockPos(x, y, z)];
+        @Override
+        public int blockAt(int index) {
+            int position = Arrays.binarySearch(indices, 0, size, (short) index);
+            return position >= 0 ? blockStates[position] : 0;
         }
 
-        public void setBlockAt(int x, int y, int z, int blockState) {
-            int index = encodeBlockPos(x, y, z);
-            if (blockState == blockStates[index]) {
-                return;
+        @Override
+        public SectionData setBlockAt(int index, int blockState) {
+            int position = Arrays.binarySearch(indices, 0, size, (short) index);
+            if (position >= 0) {
+                if (blockState != 0) {
+                    blockStates[position] = (short) blockState;
+                    return this;
+                }
+
+                // Remove the entry
+                System.arraycopy(indices, position + 1, indices, position, size - position - 1);
+                System.arraycopy(blockStates, position + 1, blockStates, position, size - position - 1);
+                size--;
+                return this;
             }
 
-            blockStates[index] = (short) blockState;
             if (blockState == 0) {
+                return this;
+            }
+
+            if (size == MAX_SIZE) {
+                // Too many blocks to be stored efficiently as pairs
+                SectionData section = new PalettedSectionData();
+                for (int i = 0; i < size; i++) {
+                    section = section.setBlockAt(indices[i], blockStates[i]);
+                }
+                return section.setBlockAt(index, blockState);
+            }
+
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+                blockStates = Arrays.copyOf(blockStates, size * 2);
+            }
+
+            int insertionPoint = -position - 1;
+            System.arraycopy(indices, insertionPoint, indices, insertionPoint + 1, size - insertionPoint);
+            System.arraycopy(blockStates, insertionPoint, blockStates, insertionPoint + 1, size - insertionPoint);
+            indices[insertionPoint] = (short) index;
+            blockStates[insertionPoint] = (short) blockState;
+            size++;
+            return this;
+        }
+
+        @Override
+        public int nonEmptyBlocks() {
+            return size;
+        }
+
+        @Override
+        public long memoryUsage() {
+            return 32 + 2L * (16 + indices.length * 2L);
+        }
+    }
+
+    /**
+     * Palette of block states with indices bit-packed into longs, not spanning multiple longs.
+     */
+    private static final class PalettedSectionData implements SectionData {
+        private static final int MAX_BITS = 8;
+        private static final int MIN_BLOCKS = SparseSectionData.MAX_SIZE / 2;
+        private final Int2IntOpenHashMap paletteIndices = new Int2IntOpenHashMap();
+        private int[] palette = new int[2];
+        private int paletteSize = 1; // Index 0 is always air
+        private int bits = 1;
+        private long[] data = new long[dataLength(1)];
+        private int nonEmptyBlocks;
+
+        private PalettedSectionData() {
+            paletteIndices.defaultReturnValue(-1);
+            paletteIndices.put(0, 0);
+        }
+
+        @Override
+        public int blockAt(int index) {
+            return palette[paletteIndexAt(index)];
+        }
+
+        @Override
+        public SectionData setBlockAt(int index, int blockState) {
+            int paletteIndex = paletteIndices.get(blockState);
+            if (paletteIndex == -1) {
+                if (paletteSize == 1 << MAX_BITS) {
+                    // Too many different block states for a small palette
+                    SectionData section = new DirectSectionData();
+                    for (int i = 0; i < 4096; i++) {
+                        section.setBlockAt(i, blockAt(i));
+                    }
+                    return section.setBlockAt(index, blockState);
+                }
+
+                if (paletteSize == palette.length) {
+                    resize(bits + 1);
+                }
+                paletteIndex = paletteSize++;
+                palette[paletteIndex] = blockState;
+                paletteIndices.put(blockState, paletteIndex);
+            }
+
+            int previousIndex = paletteIndexAt(index);
+            if (previousIndex == paletteIndex) {
+                return this;
+            }
+
+            setPaletteIndexAt(index, paletteIndex);
+            if (paletteIndex == 0) {
                 nonEmptyBlocks--;
-            } else {
+                if (nonEmptyBlocks < MIN_BLOCKS) {
+                    return toSparse();
+                }
+            } else if (previousIndex == 0) {
                 nonEmptyBlocks++;
             }
+            return this;
+        }
+
+        @Override
+        public int nonEmptyBlocks() {
+            return nonEmptyBlocks;
+        }
+
+        @Override
+        public long memoryUsage() {
+            // Rough estimate of the reverse lookup map with keys, values, and some load factor overhead
+            return 48 + 16 + palette.length * 4L + 16 + data.length * 8L + 64 + paletteSize * 16L;
+        }
+
+        private SectionData toSparse() {
+            SectionData section = new SparseSectionData();
+            for (int i = 0; i < 4096; i++) {
+                int paletteIndex = paletteIndexAt(i);
+                if (paletteIndex != 0) {
+                    section = section.setBlockAt(i, palette[paletteIndex]);
+                }
+            }
+            return section;
+        }
+
+        private int paletteIndexAt(int index) {
+            int valuesPerLong = 64 / bits;
+            long value = data[index / valuesPerLong];
+            return (int) (value >>> ((index % valuesPerLong) * bits)) & ((1 << bits) - 1);
+        }
+
+        private void setPaletteIndexAt(int index, int paletteIndex) {
+            int valuesPerLong = 64 / bits;
+            int longIndex = index / valuesPerLong;
+            int shift = (index % valuesPerLong) * bits;
+            long mask = (long) ((1 << bits) - 1) << shift;
+            data[longIndex] = (data[longIndex] & ~mask) | ((long) paletteIndex << shift);
+        }
+
+        private void resize(int newBits) {
+            int[] indices = new int[4096];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = paletteIndexAt(i);
+            }
+
+            bits = newBits;
+            data = new long[dataLength(newBits)];
+            palette = Arrays.copyOf(palette, 1 << newBits);
+            for (int i = 0; i < indices.length; i++) {
+                setPaletteIndexAt(i, indices[i]);
+            }
+        }
+
+        private static int dataLength(int bits) {
+            int valuesPerLong = 64 / bits;
+            return (4096 + valuesPerLong - 1) / valuesPerLong;
+        }
+    }
+
+    private static final class DirectSectionData implements SectionData {
+        private final short[] blockStates = new short[4096];
+        private int nonEmptyBlocks;
+
+        @Override
+        public int blockAt(int index) {
+            return blockStates[index];
+        }
+
+        @Override
+        public SectionData setBlockAt(int index, int blockState) {
+            if (blockState == blockStates[index]) {
+                return this;
+            }
+
+            if (blockStates[index] == 0) {
+                nonEmptyBlocks++;
+            } else if (blockState == 0) {
+                nonEmptyBlocks--;
+            }
+            blockStates[index] = (short) blockState;
+
+            if (blockState == 0 && nonEmptyBlocks < PalettedSectionData.MIN_BLOCKS) {
+                SectionData section = new SparseSectionData();
+                for (int i = 0; i < blockStates.length; i++) {
+                    if (blockStates[i] != 0) {
+                        section = section.setBlockAt(i, blockStates[i]);
+                    }
+                }
+                return section;
+            }
+            return this;
         }
 
-        public short nonEmptyBlocks() {
+        @Override
+        public int nonEmptyBlocks() {
             return nonEmptyBlocks;
         }
 
-        private static int encodeBlockPos(int x, int y, int z) {
-            return ((y & 0xF) << 8) | ((x & 0xF) << 4) | (z & 0xF);
+        @Override
+        public long memoryUsage() {
+            return 24 + 16 + blockStates.length * 2L;
         }
     }
-}
\ No newline at end of file
+}
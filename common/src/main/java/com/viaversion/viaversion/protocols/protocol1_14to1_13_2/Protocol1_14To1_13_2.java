@@ -141,10 +141,6 @@ public class Protocol1_14To1_13_2 extends AbstractProtocol<ClientboundPackets1_1
 
     @Override
     protected void onMappingDataLoaded() {
-        WorldPackets.air = MAPPINGS.getBlockStateMappings().getNewId(0);
-        WorldPackets.voidAir = MAPPINGS.getBlockStateMappings().getNewId(8591);
-        WorldPackets.caveAir = MAPPINGS.getBlockStateMappings().getNewId(8592);
-
         Types1_13_2.PARTICLE.filler(this, false)
                 .reader("block", ParticleType.Readers.BLOCK)
                 .reader("dust", ParticleType.Readers.DUST)
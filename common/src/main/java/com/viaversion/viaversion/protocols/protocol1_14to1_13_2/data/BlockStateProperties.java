@@ -0,0 +1,100 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_14to1_13_2.data;
+
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+/**
+ * Bitsets of up to eight block properties by block state id, so that chunk sections can be analysed
+ * by evaluating the properties once per palette entry instead of once per block.
+ */
+public final class BlockStateProperties {
+    private final byte[] properties;
+
+    /**
+     * @param size number of block states
+     */
+    public BlockStateProperties(final int size) {
+        this.properties = new byte[size];
+    }
+
+    /**
+     * Adds the property to all block states.
+     *
+     * @param property property bit
+     */
+    public void addAll(final int property) {
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] |= (byte) property;
+        }
+    }
+
+    /**
+     * Adds the property to the given block states, ignoring out of range ids.
+     *
+     * @param blockStates block states
+     * @param property    property bit
+     */
+    public void add(final IntSet blockStates, final int property) {
+        final IntIterator iterator = blockStates.iterator();
+        while (iterator.hasNext()) {
+            add(iterator.nextInt(), property);
+        }
+    }
+
+    public void add(final int blockState, final int property) {
+        if (blockState >= 0 && blockState < properties.length) {
+            properties[blockState] |= (byte) property;
+        }
+    }
+
+    public void remove(final int blockState, final int property) {
+        if (blockState >= 0 && blockState < properties.length) {
+            properties[blockState] &= (byte) ~property;
+        }
+    }
+
+    /**
+     * Returns the properties of the given block state.
+     *
+     * @param blockState block state
+     * @return property bits, or 0 if out of range
+     */
+    public int properties(final int blockState) {
+        return blockState >= 0 && blockState < properties.length ? properties[blockState] & 0xFF : 0;
+    }
+
+    /**
+     * Writes the properties of each palette entry to the given array, to be looked up by palette index.
+     *
+     * @param palette           block palette
+     * @param paletteProperties array of at least the palette size to write the properties of each palette entry to
+     * @return union of the properties of all palette entries, 0 if the section can be skipped
+     */
+    public int paletteProperties(final DataPalette palette, final byte[] paletteProperties) {
+        int union = 0;
+        for (int i = 0; i < palette.size(); i++) {
+            final int properties = properties(palette.idByIndex(i));
+            paletteProperties[i] = (byte) properties;
+            union |= properties;
+        }
+        return union;
+    }
+}
@@ -26,8 +26,12 @@ import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
 public class MappingData extends MappingDataBase {
+    public static final int NON_AIR = 1;
+    public static final int MOTION_BLOCKING = 1 << 1;
+    public static final int NON_FULL_BLOCK = 1 << 2;
     private IntSet motionBlocking;
     private IntSet nonFullBlocks;
+    private BlockStateProperties blockProperties;
 
     public MappingData() {
         super("1.13.2", "1.14");
@@ -43,6 +47,16 @@ public class MappingData extends MappingDataBase {
             final IntArrayTag nonFullBlocks = heightmap.get("nonFullBlocks");
             this.nonFullBlocks = new IntOpenHashSet(nonFullBlocks.getValue());
         }
+
+        blockProperties = new BlockStateProperties(getBlockStateMappings().mappedSize());
+        blockProperties.addAll(NON_AIR);
+        blockProperties.remove(getBlockStateMappings().getNewId(0), NON_AIR); // Air
+        blockProperties.remove(getBlockStateMappings().getNewId(8591), NON_AIR); // Void air
+        blockProperties.remove(getBlockStateMappings().getNewId(8592), NON_AIR); // Cave air
+        blockProperties.add(this.motionBlocking, MOTION_BLOCKING);
+        if (this.nonFullBlocks != null) {
+            blockProperties.add(this.nonFullBlocks, NON_FULL_BLOCK);
+        }
     }
 
     public IntSet getMotionBlocking() {
@@ -52,4 +66,13 @@ public class MappingData extends MappingDataBase {
     public IntSet getNonFullBlocks() {
         return nonFullBlocks;
     }
+
+    /**
+     * Returns the {@link #NON_AIR}, {@link #MOTION_BLOCKING}, and {@link #NON_FULL_BLOCK} properties of mapped block states.
+     *
+     * @return block state properties
+     */
+    public BlockStateProperties getBlockProperties() {
+        return blockProperties;
+    }
 }
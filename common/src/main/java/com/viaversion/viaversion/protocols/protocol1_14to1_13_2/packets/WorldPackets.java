@@ -34,19 +34,19 @@ import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ClientboundPacke
 import com.viaversion.viaversion.api.type.types.chunk.ChunkType1_13;
 import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.ClientboundPackets1_14;
 import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.Protocol1_14To1_13_2;
+import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.data.BlockStateProperties;
+import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.data.MappingData;
 import com.viaversion.viaversion.protocols.protocol1_14to1_13_2.storage.EntityTracker1_14;
 import com.viaversion.viaversion.api.type.types.chunk.ChunkType1_14;
 import com.viaversion.viaversion.api.minecraft.ClientWorld;
 import com.viaversion.viaversion.rewriter.BlockRewriter;
 import com.viaversion.viaversion.util.CompactArrayUtil;
+import com.viaversion.viaversion.util.LightArrayUtil;
 import java.util.Arrays;
 
 public class WorldPackets {
     public static final int SERVERSIDE_VIEW_DISTANCE = 64;
     private static final byte[] FULL_LIGHT = new byte[2048];
-    public static int air;
-    public static int voidAir;
-    public static int caveAir;
 
     static {
         Arrays.fill(FULL_LIGHT, (byte) 0xff);
@@ -132,42 +132,44 @@ public class WorldPackets {
             int[] motionBlocking = new int[16 * 16];
             int[] worldSurface = new int[16 * 16];
 
+            BlockStateProperties blockProperties = protocol.getMappingData().getBlockProperties();
+            boolean nonFullBlockLightFix = Via.getConfig().isNonFullBlockLightFix();
             for (int s = 0; s < chunk.getSections().length; s++) {
                 ChunkSection section = chunk.getSections()[s];
                 if (section == null) continue;
                 DataPalette blocks = section.palette(PaletteType.BLOCKS);
 
-                boolean hasBlock = false;
                 for (int i = 0; i < blocks.size(); i++) {
                     int old = blocks.idByIndex(i);
-                    int newId = protocol.getMappingData().getNewBlockStateId(old);
-                    if (!hasBlock && newId != air && newId != voidAir && newId != caveAir) { // air, void_air, cave_air
-                        hasBlock = true;
-                    }
-                    blocks.setIdByIndex(i, newId);
+                    blocks.setIdByIndex(i, protocol.getMappingData().getNewBlockStateId(old));
                 }
-                if (!hasBlock) {
+
+                // Evaluate the block properties once per palette entry
+                byte[] paletteProperties = new byte[blocks.size()];
+                int sectionProperties = blockProperties.paletteProperties(blocks, paletteProperties);
+                if ((sectionProperties & MappingData.NON_AIR) == 0) { // air, void_air, cave_air
                     section.setNonAirBlocksCount(0);
                     continue;
                 }
 
+                boolean fixNonFullBlockLight = nonFullBlockLightFix && (sectionProperties & MappingData.NON_FULL_BLOCK) != 0;
                 int nonAirBlockCount = 0;
                 int sy = s << 4;
                 for (int idx = 0; idx < ChunkSection.SIZE; idx++) {
-                    int id = blocks.idAt(idx);
-                    if (id == air || id == voidAir || id == caveAir) continue;
+                    int properties = paletteProperties[blocks.paletteIndexAt(idx)];
+                    if ((properties & MappingData.NON_AIR) == 0) continue;
                     nonAirBlockCount++;
 
                     int xz = idx & 0xFF;
                     int y = ChunkSection.yFromIndex(idx);
                     worldSurface[xz] = sy + y + 1; // +1 (top of the block)
 
-                    if (protocol.getMappingData().getMotionBlocking().contains(id)) {
+                    if ((properties & MappingData.MOTION_BLOCKING) != 0) {
                         motionBlocking[xz] = sy + y + 1; // +1 (top of the block)
                     }
 
                     // Manually update light for non-full blocks (block light must not be sent)
-                    if (Via.getConfig().isNonFullBlockLightFix() && protocol.getMappingData().getNonFullBlocks().contains(id)) {
+                    if (fixNonFullBlockLight && (properties & MappingData.NON_FULL_BLOCK) != 0) {
                         int x = ChunkSection.xFromIndex(idx);
                         int z = ChunkSection.zFromIndex(idx);
                         setNonFullLight(chunk, section, s, x, y, z);
@@ -213,14 +215,14 @@ public class WorldPackets {
                     }
                     continue;
                 }
-                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, section.getLight().getSkyLight());
+                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, LightArrayUtil.sharedHandle(section.getLight().getSkyLightNibbleArray()));
             }
             if (chunk.isFullChunk())
                 lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, FULL_LIGHT); // chunk above 255
 
             for (ChunkSection section : chunk.getSections()) {
                 if (section == null) continue;
-                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, section.getLight().getBlockLight());
+                lightPacket.write(Type.BYTE_ARRAY_PRIMITIVE, LightArrayUtil.sharedHandle(section.getLight().getBlockLightNibbleArray()));
             }
 
             EntityTracker1_14 entityTracker = wrapper.user().getEntityTracker(Protocol1_14To1_13_2.class);
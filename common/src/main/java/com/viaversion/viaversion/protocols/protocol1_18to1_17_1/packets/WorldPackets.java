@@ -40,6 +40,7 @@ import com.viaversion.viaversion.protocols.protocol1_18to1_17_1.Protocol1_18To1_
 import com.viaversion.viaversion.protocols.protocol1_18to1_17_1.storage.ChunkLightStorage;
 import com.viaversion.viaversion.api.type.types.chunk.ChunkType1_18;
 import com.viaversion.viaversion.util.Key;
+import com.viaversion.viaversion.util.LightArrayUtil;
 import com.viaversion.viaversion.util.MathUtil;
 import java.util.ArrayList;
 import java.util.BitSet;
@@ -83,16 +84,17 @@ public final class WorldPackets {
             final long[] emptySkyLightMask = wrapper.passthrough(Type.LONG_ARRAY_PRIMITIVE);
             final long[] emptyBlockLightMask = wrapper.passthrough(Type.LONG_ARRAY_PRIMITIVE);
 
+            // Uniform arrays are replaced by shared ones while waiting for the chunk
             final int skyLightLenght = wrapper.passthrough(Type.VAR_INT);
             final byte[][] skyLight = new byte[skyLightLenght][];
             for (int i = 0; i < skyLightLenght; i++) {
-                skyLight[i] = wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE);
+                skyLight[i] = LightArrayUtil.shareUniform(wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE));
             }
 
             final int blockLightLength = wrapper.passthrough(Type.VAR_INT);
             final byte[][] blockLight = new byte[blockLightLength][];
             for (int i = 0; i < blockLightLength; i++) {
-                blockLight[i] = wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE);
+                blockLight[i] = LightArrayUtil.shareUniform(wrapper.passthrough(Type.BYTE_ARRAY_PRIMITIVE));
             }
 
             final ChunkLightStorage lightStorage = wrapper.user().get(ChunkLightStorage.class);
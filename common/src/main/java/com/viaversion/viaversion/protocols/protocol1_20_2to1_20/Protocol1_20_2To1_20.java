@@ -265,6 +265,22 @@ public final class Protocol1_20_2To1_20 extends AbstractProtocol<ClientboundPack
         super.transform(direction, State.CONFIGURATION, packetWrapper);
     }
 
+    @Override
+    public int passthroughPacketId(final Direction direction, final State state, final int unmappedId) {
+        // Packets are only redirected in bridge phases, checked below
+        return mappedPassthroughPacketId(direction, state, unmappedId);
+    }
+
+    @Override
+    public boolean allowsPassthrough(final UserConnection connection, final Direction direction) {
+        if (direction == Direction.SERVERBOUND) {
+            return true;
+        }
+
+        final ConfigurationState configurationBridge = connection.get(ConfigurationState.class);
+        return configurationBridge != null && configurationBridge.bridgePhase() == BridgePhase.NONE;
+    }
+
     public static void sendConfigurationPackets(final UserConnection connection, final CompoundTag dimensionRegistry, @Nullable final LastResourcePack lastResourcePack) throws Exception {
         final ProtocolInfo protocolInfo = connection.getProtocolInfo();
         protocolInfo.setServerState(State.CONFIGURATION);
@@ -112,6 +112,7 @@ public final class BlockItemPacketRewriter1_20_2 extends ItemRewriter<Clientboun
                 handleBlockEntity(blockEntity.tag());
             }
         });
+        protocol.registerCacheableClientbound(ClientboundPackets1_19_4.CHUNK_DATA, blockRewriter::chunkCacheState);
 
         // Replace the NBT type everywhere
         protocol.registerClientbound(ClientboundPackets1_19_4.WINDOW_ITEMS, new PacketHandlers() {
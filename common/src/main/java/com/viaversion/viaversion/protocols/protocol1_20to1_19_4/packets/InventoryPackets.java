@@ -115,6 +115,7 @@ public final class InventoryPackets extends ItemRewriter<ClientboundPackets1_19_
                 read(Type.BOOLEAN); // Trust edges
             }
         });
+        protocol.registerCacheableClientbound(ClientboundPackets1_19_4.CHUNK_DATA, blockRewriter::chunkCacheState);
 
         protocol.registerClientbound(ClientboundPackets1_19_4.UPDATE_LIGHT, wrapper -> {
             wrapper.passthrough(Type.VAR_INT); // X
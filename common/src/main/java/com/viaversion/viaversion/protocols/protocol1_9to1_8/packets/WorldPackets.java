@@ -21,12 +21,14 @@ import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
+import com.viaversion.viaversion.api.minecraft.Environment;
 import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.api.minecraft.chunks.BaseChunk;
 import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
 import com.viaversion.viaversion.api.minecraft.item.DataItem;
 import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.protocol.packet.PacketTemplate;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
@@ -49,6 +51,13 @@ import java.util.ArrayList;
 import java.util.Optional;
 
 public class WorldPackets {
+    // Empty full chunk without the chunk coordinates, the same with and without sky light as there are no sections
+    private static final PacketTemplate EMPTY_CHUNK = PacketTemplate.of(ClientboundPackets1_9.CHUNK_DATA, buffer -> {
+        Chunk chunk = new BaseChunk(0, 0, true, false, 0, new ChunkSection[16], new int[256], new ArrayList<>());
+        ChunkType1_9_1.forEnvironment(Environment.NORMAL).write(buffer, chunk);
+        buffer.skipBytes(Integer.BYTES * 2);
+    });
+
     public static void register(Protocol1_9To1_8 protocol) {
         protocol.registerClientbound(ClientboundPackets1_8.UPDATE_SIGN, new PacketHandlers() {
             @Override
@@ -158,18 +167,7 @@ public class WorldPackets {
                 clientChunks.getLoadedChunks().add(chunkHash);
 
                 // Send empty chunks surrounding the loaded chunk to force 1.9+ clients to render the new chunk
-                if (Via.getConfig().isChunkBorderFix()) {
-                    for (BlockFace face : BlockFace.HORIZONTAL) {
-                        int chunkX = chunk.getX() + face.modX();
-                        int chunkZ = chunk.getZ() + face.modZ();
-                        if (!clientChunks.getLoadedChunks().contains(ClientChunks.toLong(chunkX, chunkZ))) {
-                            PacketWrapper emptyChunk = wrapper.create(ClientboundPackets1_9.CHUNK_DATA);
-                            Chunk c = new BaseChunk(chunkX, chunkZ, true, false, 0, new ChunkSection[16], new int[256], new ArrayList<>());
-                            emptyChunk.write(chunkType, c);
-                            emptyChunk.send(Protocol1_9To1_8.class);
-                        }
-                    }
-                }
+                sendBorderChunks(wrapper, clientChunks, chunk);
             }
         });
 
@@ -177,11 +175,12 @@ public class WorldPackets {
             wrapper.cancel(); // Cancel the packet from being sent
             ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
             ClientChunks clientChunks = wrapper.user().get(ClientChunks.class);
-            Chunk[] chunks = wrapper.read(BulkChunkType1_8.TYPE);
 
+            // Only read the metadata up front, then translate and send one chunk at a time
+            BulkChunkType1_8.ChunkBulkSection[] chunkInfo = wrapper.read(BulkChunkType1_8.SECTIONS_TYPE);
             Type<Chunk> chunkType = ChunkType1_9_1.forEnvironment(clientWorld.getEnvironment());
-            // Split into multiple chunk packets
-            for (Chunk chunk : chunks) {
+            for (BulkChunkType1_8.ChunkBulkSection info : chunkInfo) {
+                Chunk chunk = info.readChunk();
                 PacketWrapper chunkData = wrapper.create(ClientboundPackets1_9.CHUNK_DATA);
                 chunkData.write(chunkType, chunk);
                 chunkData.send(Protocol1_9To1_8.class);
@@ -189,18 +188,7 @@ public class WorldPackets {
                 clientChunks.getLoadedChunks().add(ClientChunks.toLong(chunk.getX(), chunk.getZ()));
 
                 // Send empty chunks surrounding the loaded chunk to force 1.9+ clients to render the new chunk
-                if (Via.getConfig().isChunkBorderFix()) {
-                    for (BlockFace face : BlockFace.HORIZONTAL) {
-                        int chunkX = chunk.getX() + face.modX();
-                        int chunkZ = chunk.getZ() + face.modZ();
-                        if (!clientChunks.getLoadedChunks().contains(ClientChunks.toLong(chunkX, chunkZ))) {
-                            PacketWrapper emptyChunk = wrapper.create(ClientboundPackets1_9.CHUNK_DATA);
-                            Chunk c = new BaseChunk(chunkX, chunkZ, true, false, 0, new ChunkSection[16], new int[256], new ArrayList<>());
-                            emptyChunk.write(chunkType, c);
-                            emptyChunk.send(Protocol1_9To1_8.class);
-                        }
-                    }
-                }
+                sendBorderChunks(wrapper, clientChunks, chunk);
             }
         });
 
@@ -404,4 +392,20 @@ public class WorldPackets {
         });
     }
 
+    private static void sendBorderChunks(PacketWrapper wrapper, ClientChunks clientChunks, Chunk chunk) throws Exception {
+        if (!Via.getConfig().isChunkBorderFix()) {
+            return;
+        }
+
+        for (BlockFace face : BlockFace.HORIZONTAL) {
+            int chunkX = chunk.getX() + face.modX();
+            int chunkZ = chunk.getZ() + face.modZ();
+            if (!clientChunks.getLoadedChunks().contains(ClientChunks.toLong(chunkX, chunkZ))) {
+                EMPTY_CHUNK.send(wrapper.user(), Protocol1_9To1_8.class, buffer -> {
+                    buffer.writeInt(chunkX);
+                    buffer.writeInt(chunkZ);
+                });
+            }
+        }
+    }
 }
@@ -19,6 +19,7 @@ package com.viaversion.viaversion.rewriter;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.google.common.base.Preconditions;
+import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.Mappings;
 import com.viaversion.viaversion.api.data.entity.EntityTracker;
 import com.viaversion.viaversion.api.minecraft.BlockChangeRecord;
@@ -30,13 +31,17 @@ import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
 import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
 import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.protocol.BlockStateMapperProvider;
 import com.viaversion.viaversion.util.MathUtil;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class BlockRewriter<C extends ClientboundPacketType> {
@@ -180,6 +185,26 @@ public class BlockRewriter<C extends ClientboundPacketType> {
 
     public void registerChunkData1_19(C packetType, ChunkTypeSupplier chunkTypeSupplier, @Nullable Consumer<BlockEntity> blockEntityHandler) {
         protocol.registerClientbound(packetType, chunkDataHandler1_19(chunkTypeSupplier, blockEntityHandler));
+        protocol.registerFusableClientbound(packetType);
+        if (blockEntityHandler == null) {
+            // Custom block entity handlers may depend on anything
+            protocol.registerCacheableClientbound(packetType, this::chunkCacheState);
+        }
+    }
+
+    /**
+     * Returns the connection state 1.18+ chunk transformations depend on, to be used for
+     * {@link Protocol#registerCacheableClientbound(ClientboundPacketType, java.util.function.Function)}.
+     *
+     * @param connection user connection
+     * @return world section height and biome count, or null if not yet known
+     */
+    public @Nullable Object chunkCacheState(UserConnection connection) {
+        final EntityTracker tracker = protocol.getEntityRewriter().tracker(connection);
+        if (tracker.biomesSent() == -1 || tracker.currentWorldSectionHeight() == -1) {
+            return null;
+        }
+        return ((long) tracker.currentWorldSectionHeight() << 32) | tracker.biomesSent();
     }
 
     public PacketHandler chunkDataHandler1_19(ChunkTypeSupplier chunkTypeSupplier, @Nullable Consumer<BlockEntity> blockEntityHandler) {
@@ -191,11 +216,14 @@ public class BlockRewriter<C extends ClientboundPacketType> {
                     MathUtil.ceilLog2(protocol.getMappingData().getBlockStateMappings().mappedSize()),
                     MathUtil.ceilLog2(tracker.biomesSent()));
             final Chunk chunk = wrapper.passthrough(chunkType);
-            for (final ChunkSection section : chunk.getSections()) {
-                final DataPalette blockPalette = section.palette(PaletteType.BLOCKS);
-                for (int i = 0; i < blockPalette.size(); i++) {
-                    final int id = blockPalette.idByIndex(i);
-                    blockPalette.setIdByIndex(i, protocol.getMappingData().getNewBlockStateId(id));
+            final IntUnaryOperator blockStateMapper = blockStateMapper(wrapper);
+            if (blockStateMapper != null) {
+                for (final ChunkSection section : chunk.getSections()) {
+                    final DataPalette blockPalette = section.palette(PaletteType.BLOCKS);
+                    for (int i = 0; i < blockPalette.size(); i++) {
+                        final int id = blockPalette.idByIndex(i);
+                        blockPalette.setIdByIndex(i, blockStateMapper.applyAsInt(id));
+                    }
                 }
             }
 
@@ -216,6 +244,18 @@ public class BlockRewriter<C extends ClientboundPacketType> {
         };
     }
 
+    /**
+     * Returns the block state mapper to remap the packet's block states with, or null if an earlier protocol
+     * already did so with fused mappings.
+     */
+    private @Nullable IntUnaryOperator blockStateMapper(final PacketWrapper wrapper) {
+        final ProtocolPipeline pipeline = wrapper.user().getProtocolInfo().getPipeline();
+        if (pipeline instanceof BlockStateMapperProvider) {
+            return ((BlockStateMapperProvider) pipeline).blockStateMapper(wrapper, protocol);
+        }
+        return protocol.getMappingData()::getNewBlockStateId;
+    }
+
     public void registerBlockEntityData(C packetType) {
         registerBlockEntityData(packetType, null);
     }
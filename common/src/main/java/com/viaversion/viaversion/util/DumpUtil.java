@@ -21,11 +21,22 @@ import com.google.common.io.CharStreams;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.viaversion.viaversion.ViaManagerImpl;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.IdentityMappings;
+import com.viaversion.viaversion.api.data.IntArrayMappings;
+import com.viaversion.viaversion.api.data.MappingData;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.data.ShiftMappings;
+import com.viaversion.viaversion.api.protocol.Protocol;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import com.viaversion.viaversion.dump.DumpTemplate;
 import com.viaversion.viaversion.dump.VersionInfo;
+import com.viaversion.viaversion.handlers.AsyncTransformPool;
+import com.viaversion.viaversion.protocol.ProtocolManagerImpl;
+import com.viaversion.viaversion.protocol.TranslatedPacketCache;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockConnectionStorage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -35,6 +46,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,6 +57,8 @@ import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class DumpUtil {
+    private static final int LOOKUP_SAMPLES = 1 << 14;
+    private static volatile int lookupSink;
 
     /**
      * Creates a platform dump and posts it to ViaVersion's dump server asychronously.
@@ -66,7 +80,7 @@ public final class DumpUtil {
                 Via.getManager().getSubPlatforms()
         );
         final Map<String, Object> configuration = ((Config) Via.getConfig()).getValues();
-        final DumpTemplate template = new DumpTemplate(version, configuration, Via.getPlatform().getDump(), Via.getManager().getInjector().getDump(), getPlayerSample(playerToSample));
+        final DumpTemplate template = new DumpTemplate(version, configuration, Via.getPlatform().getDump(), Via.getManager().getInjector().getDump(), getPlayerSample(playerToSample), getPacketCache(), getChunkTranslation(), getMappings());
         final CompletableFuture<String> result = new CompletableFuture<>();
         Via.getPlatform().runAsync(() -> {
             final HttpURLConnection con;
@@ -144,6 +158,8 @@ public final class DumpUtil {
             versions.addProperty(entry.getKey().getName(), entry.getValue());
         }
 
+        playerSample.add("block-connection-storage", getBlockConnectionStorage());
+
         final Set<List<String>> pipelines = new HashSet<>();
         if (uuid != null) {
             // Pipeline of sender
@@ -178,6 +194,141 @@ public final class DumpUtil {
         return playerSample;
     }
 
+    private static JsonObject getBlockConnectionStorage() {
+        int players = 0;
+        long sections = 0;
+        long bytes = 0;
+        long maxBytes = 0;
+        for (final UserConnection connection : Via.getManager().getConnectionManager().getConnections()) {
+            final BlockConnectionStorage storage = connection.get(BlockConnectionStorage.class);
+            if (storage == null) {
+                continue;
+            }
+
+            final int storedSections;
+            final long usage;
+            try {
+                storedSections = storage.sections();
+                usage = storage.memoryUsage();
+            } catch (final RuntimeException ignored) {
+                // Modified concurrently by the connection's event loop
+                continue;
+            }
+
+            players++;
+            sections += storedSections;
+            bytes += usage;
+            maxBytes = Math.max(maxBytes, usage);
+        }
+
+        final JsonObject storage = new JsonObject();
+        storage.addProperty("players", players);
+        storage.addProperty("sections", sections);
+        storage.addProperty("estimated-bytes", bytes);
+        storage.addProperty("average-bytes-per-player", players != 0 ? bytes / players : 0);
+        storage.addProperty("max-bytes-per-player", maxBytes);
+        return storage;
+    }
+
+    private static JsonObject getMappings() {
+        final JsonObject mappings = new JsonObject();
+        long bytes = 0;
+        long denseBytes = 0;
+        for (final Protocol<?, ?, ?, ?> protocol : Via.getManager().getProtocolManager().getProtocols()) {
+            final MappingData mappingData = protocol.getMappingData();
+            if (mappingData == null) {
+                continue;
+            }
+
+            final Map<String, Mappings> protocolMappings = new LinkedHashMap<>();
+            protocolMappings.put("blocks", mappingData.getBlockMappings());
+            protocolMappings.put("block-states", mappingData.getBlockStateMappings());
+            protocolMappings.put("block-entities", mappingData.getBlockEntityMappings());
+            protocolMappings.put("items", mappingData.getItemMappings());
+            protocolMappings.put("particles", mappingData.getParticleMappings());
+            protocolMappings.put("sounds", mappingData.getSoundMappings());
+            protocolMappings.put("statistics", mappingData.getStatisticsMappings());
+            protocolMappings.put("menus", mappingData.getMenuMappings());
+            protocolMappings.put("enchantments", mappingData.getEnchantmentMappings());
+            protocolMappings.put("entities", mappingData.getEntityMappings());
+            protocolMappings.put("argument-types", mappingData.getArgumentTypeMappings());
+            protocolMappings.put("paintings", mappingData.getPaintingMappings());
+
+            final JsonObject protocolReport = new JsonObject();
+            for (final Map.Entry<String, Mappings> entry : protocolMappings.entrySet()) {
+                final Mappings value = entry.getValue();
+                if (value == null) {
+                    continue;
+                }
+
+                final JsonObject report = new JsonObject();
+                report.addProperty("type", value.getClass().getSimpleName());
+                report.addProperty("size", value.size());
+                report.addProperty("mapped-size", value.mappedSize());
+                final long estimatedBytes = estimatedBytes(value);
+                if (value instanceof ShiftMappings) {
+                    report.addProperty("runs", ((ShiftMappings) value).runs());
+                }
+                if (estimatedBytes != -1) {
+                    report.addProperty("estimated-bytes", estimatedBytes);
+                    bytes += estimatedBytes;
+                    denseBytes += (long) value.size() * Integer.BYTES;
+                }
+                report.addProperty("lookup-nanos", lookupNanos(value));
+                protocolReport.add(entry.getKey(), report);
+            }
+            mappings.add(protocol.getClass().getSimpleName(), protocolReport);
+        }
+
+        mappings.addProperty("estimated-bytes", bytes);
+        mappings.addProperty("dense-bytes", denseBytes);
+        if (Via.getManager().getProtocolManager() instanceof ProtocolManagerImpl) {
+            mappings.add("loading", ((ProtocolManagerImpl) Via.getManager().getProtocolManager()).dumpMappingLoading());
+        }
+        return mappings;
+    }
+
+    private static long estimatedBytes(final Mappings mappings) {
+        if (mappings instanceof ShiftMappings) {
+            return ((ShiftMappings) mappings).memoryUsage();
+        } else if (mappings instanceof IntArrayMappings) {
+            return (long) mappings.size() * Integer.BYTES;
+        } else if (mappings instanceof IdentityMappings) {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the average time of a lookup in nanoseconds, measured over ids spread across the mappings.
+     */
+    private static double lookupNanos(final Mappings mappings) {
+        final int size = mappings.size();
+        if (size == 0) {
+            return 0;
+        }
+
+        int sum = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < LOOKUP_SAMPLES; i++) {
+            // Step through the ids in an order that defeats the prefetcher
+            sum += mappings.getNewId((int) ((i * 0x9E3779B1L & 0xFFFFFFFFL) % size));
+        }
+        final long time = System.nanoTime() - start;
+        lookupSink = sum;
+        return (double) time / LOOKUP_SAMPLES;
+    }
+
+    private static JsonObject getPacketCache() {
+        final TranslatedPacketCache packetCache = Via.getManager() instanceof ViaManagerImpl ? ((ViaManagerImpl) Via.getManager()).packetCache() : null;
+        return packetCache != null ? packetCache.dump() : new JsonObject();
+    }
+
+    private static JsonObject getChunkTranslation() {
+        final AsyncTransformPool pool = Via.getManager() instanceof ViaManagerImpl ? ((ViaManagerImpl) Via.getManager()).asyncTransformPool() : null;
+        return pool != null ? pool.dump() : new JsonObject();
+    }
+
     public static final class DumpException extends RuntimeException {
         private final DumpErrorType errorType;
 
@@ -0,0 +1,77 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.util;
+
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionLight;
+import com.viaversion.viaversion.api.minecraft.chunks.NibbleArray;
+import java.util.Arrays;
+
+/**
+ * Shared light arrays for sections with the same light value everywhere, saving an allocation per uniform section.
+ * The returned arrays must never be modified.
+ */
+public final class LightArrayUtil {
+    private static final byte[][] UNIFORM_LIGHT = new byte[16][];
+
+    static {
+        for (int value = 0; value < 16; value++) {
+            final byte[] light = new byte[ChunkSectionLight.LIGHT_LENGTH];
+            Arrays.fill(light, (byte) ((value << 4) | value));
+            UNIFORM_LIGHT[value] = light;
+        }
+    }
+
+    private LightArrayUtil() {
+    }
+
+    /**
+     * Returns the byte array behind the nibble array, or a shared array if the nibble array is uniform.
+     *
+     * @param array light nibble array
+     * @return the byte array or a shared array not to be modified
+     */
+    public static byte[] sharedHandle(final NibbleArray array) {
+        if (array.isUniform() && array.actualSize() == ChunkSectionLight.LIGHT_LENGTH) {
+            return UNIFORM_LIGHT[array.get(0)];
+        }
+        return array.getHandle();
+    }
+
+    /**
+     * Returns a shared array with the same contents if the given light array is uniform, or the array itself otherwise.
+     *
+     * @param data light array
+     * @return shared array not to be modified if uniform, otherwise the given array
+     */
+    public static byte[] shareUniform(final byte[] data) {
+        if (data.length != ChunkSectionLight.LIGHT_LENGTH) {
+            return data;
+        }
+
+        final byte first = data[0];
+        if (((first >> 4) & 0xF) != (first & 0xF)) {
+            return data;
+        }
+        for (int i = 1; i < data.length; i++) {
+            if (data[i] != first) {
+                return data;
+            }
+        }
+        return UNIFORM_LIGHT[first & 0xF];
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.util;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Open addressing hash map with primitive long keys.
+ * <p>
+ * FastUtil's long collections are not included in the shaded jar, so this covers the few places that need one.
+ *
+ * @param <V> value type
+ */
+public final class LongObjectHashMap<V> {
+    private static final float LOAD_FACTOR = 0.75F;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    public LongObjectHashMap(final int expectedSize) {
+        allocate(Math.max(4, Integer.highestOneBit(Math.max(1, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1));
+    }
+
+    public @Nullable V get(final long key) {
+        int slot = slot(key);
+        while (true) {
+            final Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                //noinspection unchecked
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Puts a non-null value into the map.
+     *
+     * @param key   key
+     * @param value non-null value
+     * @return previous value, or null if none was present
+     */
+    public @Nullable V put(final long key, final V value) {
+        Preconditions.checkNotNull(value);
+        int slot = slot(key);
+        while (true) {
+            final Object current = values[slot];
+            if (current == null) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > threshold) {
+                    rehash(values.length << 1);
+                }
+                return null;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                //noinspection unchecked
+                return (V) current;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public @Nullable V remove(final long key) {
+        int slot = slot(key);
+        while (true) {
+            final Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                size--;
+                shiftKeys(slot);
+                //noinspection unchecked
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public void forEachValue(final Consumer<V> consumer) {
+        for (final Object value : values) {
+            if (value != null) {
+                //noinspection unchecked
+                consumer.accept((V) value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void shiftKeys(int slot) {
+        // Move following entries of the same probe sequence back into the freed slot
+        while (true) {
+            final int last = slot;
+            slot = (slot + 1) & mask;
+            while (true) {
+                if (values[slot] == null) {
+                    values[last] = null;
+                    return;
+                }
+
+                final int ideal = slot(keys[slot]);
+                if (last <= slot ? last >= ideal || ideal > slot : last >= ideal && ideal > slot) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            keys[last] = keys[slot];
+            values[last] = values[slot];
+        }
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            final Object value = oldValues[i];
+            if (value == null) {
+                continue;
+            }
+
+            int slot = slot(oldKeys[i]);
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = value;
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(final long key) {
+        // Mix the bits, as keys are often packed coordinates
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16)) & mask;
+    }
+}
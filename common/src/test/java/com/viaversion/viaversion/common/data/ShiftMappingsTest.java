@@ -0,0 +1,136 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.data;
+
+import com.viaversion.viaversion.api.data.IntArrayMappings;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.data.ShiftMappings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ShiftMappingsTest {
+
+    private static final int SIZE = 1000;
+    private static final int MAPPED_SIZE = 1000;
+
+    @Test
+    void testShifts() {
+        final int[] dense = new int[SIZE];
+        for (int id = 0; id < SIZE; id++) {
+            if (id < 300) {
+                dense[id] = id;
+            } else if (id < 600) {
+                dense[id] = id + 50;
+            } else if (id < 700) {
+                dense[id] = -1;
+            } else {
+                dense[id] = id - 100;
+            }
+        }
+
+        final ShiftMappings mappings = build(dense);
+        Assertions.assertEquals(4, mappings.runs());
+        assertSameMappings(IntArrayMappings.of(dense, MAPPED_SIZE), mappings);
+    }
+
+    @Test
+    void testIdentity() {
+        final int[] dense = new int[SIZE];
+        for (int id = 0; id < SIZE; id++) {
+            dense[id] = id;
+        }
+
+        final ShiftMappings mappings = build(dense);
+        Assertions.assertEquals(1, mappings.runs());
+        assertSameMappings(IntArrayMappings.of(dense, MAPPED_SIZE), mappings);
+    }
+
+    @Test
+    void testChanges() {
+        final int[] dense = new int[SIZE];
+        for (int id = 0; id < SIZE; id++) {
+            dense[id] = id < 500 ? id : id - 10;
+        }
+
+        final ShiftMappings mappings = build(dense);
+        final IntArrayMappings expected = IntArrayMappings.of(dense.clone(), MAPPED_SIZE);
+        final int[][] changes = {
+                {0, 5}, // First id
+                {SIZE - 1, 3}, // Last id
+                {499, 400}, // Last id of a run
+                {500, 500}, // First id of a run
+                {250, -1}, // Unmapped in the middle of a run
+                {251, 251}, // Unchanged
+                {250, 250}, // Back to the run's offset
+                {0, 0}
+        };
+        for (final int[] change : changes) {
+            mappings.setNewId(change[0], change[1]);
+            expected.setNewId(change[0], change[1]);
+            assertSameMappings(expected, mappings);
+        }
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> mappings.setNewId(SIZE, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> mappings.setNewId(-1, 0));
+    }
+
+    @Test
+    void testFallbackToDense() {
+        final int[] dense = new int[SIZE];
+        for (int id = 0; id < SIZE; id++) {
+            dense[id] = (id & 1) == 0 ? id : -1;
+        }
+
+        final Mappings mappings = builder(dense).build(MAPPED_SIZE);
+        Assertions.assertTrue(mappings instanceof IntArrayMappings);
+        assertSameMappings(IntArrayMappings.of(dense, MAPPED_SIZE), mappings);
+    }
+
+    private static ShiftMappings build(final int[] dense) {
+        final Mappings mappings = builder(dense).build(MAPPED_SIZE);
+        Assertions.assertTrue(mappings instanceof ShiftMappings);
+        return (ShiftMappings) mappings;
+    }
+
+    private static ShiftMappings.Builder builder(final int[] dense) {
+        final ShiftMappings.Builder builder = ShiftMappings.builder(dense.length);
+        for (int id = 0; id < dense.length; id++) {
+            // Leave some unmapped ids out to cover skipped ids
+            if (dense[id] != -1 || (id & 1) == 0) {
+                builder.add(id, dense[id]);
+            }
+        }
+        return builder;
+    }
+
+    private static void assertSameMappings(final Mappings expected, final Mappings actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        Assertions.assertEquals(expected.mappedSize(), actual.mappedSize());
+        for (int id = -1; id <= expected.size(); id++) {
+            Assertions.assertEquals(expected.getNewId(id), actual.getNewId(id), "id " + id);
+        }
+
+        final Mappings expectedInverse = expected.inverse();
+        final Mappings actualInverse = actual.inverse();
+        Assertions.assertEquals(expectedInverse.size(), actualInverse.size());
+        Assertions.assertEquals(expectedInverse.mappedSize(), actualInverse.mappedSize());
+        for (int id = -1; id <= expectedInverse.size(); id++) {
+            Assertions.assertEquals(expectedInverse.getNewId(id), actualInverse.getNewId(id), "inverse id " + id);
+        }
+    }
+}
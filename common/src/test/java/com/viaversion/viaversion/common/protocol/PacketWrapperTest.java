@@ -0,0 +1,106 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.protocol;
+
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PacketWrapperTest {
+
+    @Test
+    void testIndexedValues() throws Exception {
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(0, null, null);
+        for (int i = 0; i < 20; i++) {
+            wrapper.write(Type.INT, i);
+            wrapper.write(Type.STRING, Integer.toString(i));
+        }
+
+        Assertions.assertEquals(13, wrapper.get(Type.INT, 13));
+        Assertions.assertEquals("7", wrapper.get(Type.STRING, 7));
+        Assertions.assertFalse(wrapper.is(Type.INT, 20));
+
+        wrapper.set(Type.INT, 13, -13);
+        wrapper.write(Type.INT, 20);
+        Assertions.assertEquals(-13, wrapper.get(Type.INT, 13));
+        Assertions.assertEquals(20, wrapper.get(Type.INT, 20));
+        Assertions.assertThrows(Exception.class, () -> wrapper.get(Type.INT, 21));
+    }
+
+    @Test
+    void testResetReader() throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        buf.writeInt(3);
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(0, buf, null);
+        wrapper.write(Type.INT, 1);
+        wrapper.write(Type.INT, 2);
+        wrapper.resetReader();
+
+        // Only read a part of the values, the rest has to stay after the newly written ones
+        Assertions.assertEquals(1, wrapper.read(Type.INT));
+        wrapper.write(Type.STRING, "a");
+        wrapper.resetReader();
+
+        Assertions.assertEquals("a", wrapper.read(Type.STRING));
+        Assertions.assertEquals(2, wrapper.read(Type.INT));
+        Assertions.assertEquals(3, wrapper.read(Type.INT));
+    }
+
+    @Test
+    void testWriteToBuffer() throws Exception {
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(5, Unpooled.buffer(), null);
+        wrapper.write(Type.VAR_INT, 1);
+        wrapper.write(Type.BOOLEAN, true);
+        wrapper.resetReader();
+        wrapper.passthrough(Type.VAR_INT);
+
+        final ByteBuf output = Unpooled.buffer();
+        wrapper.writeToBuffer(output);
+        Assertions.assertEquals(5, Type.VAR_INT.readPrimitive(output));
+        Assertions.assertEquals(1, Type.VAR_INT.readPrimitive(output));
+        Assertions.assertTrue(output.readBoolean());
+        Assertions.assertFalse(output.isReadable());
+    }
+
+    @Test
+    void testPrimitiveValues() throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        Type.VAR_INT.writePrimitive(buf, 300);
+        buf.writeFloat(1.5F);
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(0, buf, null);
+        Assertions.assertEquals(300, wrapper.passthroughInt(Type.VAR_INT));
+        Assertions.assertEquals(1.5F, wrapper.passthroughFloat(Type.FLOAT));
+        wrapper.writeBoolean(Type.BOOLEAN, true);
+        wrapper.write(Type.VAR_INT, 7);
+
+        // Primitive and boxed values can be accessed either way
+        Assertions.assertEquals(300, wrapper.get(Type.VAR_INT, 0));
+        Assertions.assertEquals(7, wrapper.getInt(Type.VAR_INT, 1));
+        wrapper.setInt(Type.VAR_INT, 1, -7);
+        Assertions.assertEquals(-7, wrapper.get(Type.VAR_INT, 1));
+        wrapper.resetReader();
+
+        Assertions.assertEquals(300, wrapper.read(Type.VAR_INT));
+        Assertions.assertEquals(1.5F, wrapper.readFloat(Type.FLOAT));
+        Assertions.assertTrue(wrapper.readBoolean(Type.BOOLEAN));
+        Assertions.assertEquals(-7, wrapper.readInt(Type.VAR_INT));
+    }
+}
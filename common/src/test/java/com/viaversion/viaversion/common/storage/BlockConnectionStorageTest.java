@@ -0,0 +1,59 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2021 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.storage;
+
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockConnectionStorage;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BlockConnectionStorageTest {
+
+    @Test
+    void testRepresentationChanges() {
+        final Random random = new Random(0);
+        final BlockConnectionStorage storage = new BlockConnectionStorage();
+        final int[] expected = new int[4096];
+
+        // Fill up with few and then many different block states to go through every representation, then empty it again
+        for (final int blockStates : new int[]{4, 64, 1000, 0}) {
+            for (int i = 0; i < 20000; i++) {
+                final int index = random.nextInt(expected.length);
+                final int blockState = blockStates == 0 ? 0 : 1 + random.nextInt(blockStates);
+                final int x = 16 + ((index >> 4) & 0xF);
+                final int y = 32 + (index >> 8);
+                final int z = -16 + (index & 0xF);
+                if (blockState == 0) {
+                    storage.remove(x, y, z);
+                } else {
+                    storage.store(x, y, z, blockState);
+                }
+                expected[index] = blockState;
+            }
+
+            for (int index = 0; index < expected.length; index++) {
+                Assertions.assertEquals(expected[index], storage.get(16 + ((index >> 4) & 0xF), 32 + (index >> 8), -16 + (index & 0xF)));
+            }
+        }
+
+        for (int index = 0; index < expected.length; index++) {
+            storage.remove(16 + ((index >> 4) & 0xF), 32 + (index >> 8), -16 + (index & 0xF));
+        }
+        Assertions.assertEquals(0, storage.sections());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2021 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.type;
+
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.types.chunk.PaletteType1_18;
+import com.viaversion.viaversion.util.CompactArrayUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PaletteTypeTest {
+    private static final int SIZE = PaletteType.BLOCKS.size();
+    private final PaletteType1_18 paletteType = new PaletteType1_18(PaletteType.BLOCKS, 15);
+
+    @Test
+    void testPaletteOnlyChange() throws Exception {
+        final DataPalette palette = paletteType.read(createIndirectPalette());
+        Assertions.assertEquals(3, palette.paletteIndexAt(3));
+        Assertions.assertEquals(30, palette.idAt(3));
+
+        for (int i = 0; i < palette.size(); i++) {
+            palette.setIdByIndex(i, palette.idByIndex(i) + 1);
+        }
+
+        final DataPalette rewritten = paletteType.read(write(palette));
+        Assertions.assertEquals(palette.size(), rewritten.size());
+        for (int i = 0; i < SIZE; i++) {
+            Assertions.assertEquals(i % 4 * 10 + 1, rewritten.idAt(i));
+        }
+    }
+
+    @Test
+    void testIndexChange() throws Exception {
+        final DataPalette palette = paletteType.read(createIndirectPalette());
+        palette.setPaletteIndexAt(5, 0);
+        palette.setIdAt(6, 40);
+
+        final DataPalette rewritten = paletteType.read(write(palette));
+        for (int i = 0; i < SIZE; i++) {
+            final int expectedId = i == 5 ? 0 : i == 6 ? 40 : i % 4 * 10;
+            Assertions.assertEquals(expectedId, rewritten.idAt(i));
+        }
+    }
+
+    private ByteBuf createIndirectPalette() throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(4);
+        Type.VAR_INT.writePrimitive(buf, 4);
+        for (int i = 0; i < 4; i++) {
+            Type.VAR_INT.writePrimitive(buf, i * 10);
+        }
+        Type.LONG_ARRAY_PRIMITIVE.write(buf, CompactArrayUtil.createCompactArrayWithPadding(4, SIZE, index -> index % 4));
+        return buf;
+    }
+
+    private ByteBuf write(final DataPalette palette) throws Exception {
+        final ByteBuf buf = Unpooled.buffer();
+        paletteType.write(buf, palette);
+        return buf;
+    }
+}
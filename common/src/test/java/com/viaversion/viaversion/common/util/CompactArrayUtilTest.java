@@ -0,0 +1,46 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2021 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.util;
+
+import com.viaversion.viaversion.util.CompactArrayUtil;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CompactArrayUtilTest {
+
+    @Test
+    void testBulkMatchesIteration() {
+        final Random random = new Random(0);
+        for (final int entries : new int[]{4096, 64, 37}) {
+            for (int bitsPerEntry = 1; bitsPerEntry <= 16; bitsPerEntry++) {
+                final int[] values = new int[entries];
+                for (int i = 0; i < entries; i++) {
+                    values[i] = random.nextInt(1 << bitsPerEntry);
+                }
+
+                final long[] packed = CompactArrayUtil.packCompactArrayWithPadding(bitsPerEntry, entries, values);
+                Assertions.assertArrayEquals(CompactArrayUtil.createCompactArrayWithPadding(bitsPerEntry, entries, i -> values[i]), packed);
+
+                final int[] unpacked = new int[entries];
+                CompactArrayUtil.unpackCompactArrayWithPadding(bitsPerEntry, entries, packed, unpacked);
+                Assertions.assertArrayEquals(values, unpacked);
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package com.viaversion.viaversion.sponge.handlers;
 
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelDecoderException;
 import com.viaversion.viaversion.util.PipelineUtil;
@@ -39,6 +40,11 @@ public class SpongeDecodeHandler extends ByteToMessageDecoder {
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf bytebuf, List<Object> list) throws Exception {
+        if (info instanceof UserConnectionImpl && ((UserConnectionImpl) info).holdServerbound(bytebuf)) {
+            // Decoded once the connection resumes
+            return;
+        }
+
         if (!info.checkServerboundPacket()) {
             bytebuf.clear(); // Don't accumulate
             throw CancelDecoderException.generate(null);
@@ -47,8 +53,13 @@ public class SpongeDecodeHandler extends ByteToMessageDecoder {
         ByteBuf transformedBuf = null;
         try {
             if (info.shouldTransformPacket()) {
-                transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-                info.transformServerbound(transformedBuf, CancelDecoderException::generate);
+                // Consume the whole input, the packet is read from its own view
+                final ByteBuf packet = bytebuf.readSlice(bytebuf.readableBytes());
+                transformedBuf = info.passthroughServerbound(packet);
+                if (transformedBuf == null) {
+                    transformedBuf = ctx.alloc().buffer();
+                    info.transformServerbound(packet, transformedBuf, CancelDecoderException::generate);
+                }
             }
 
             try {
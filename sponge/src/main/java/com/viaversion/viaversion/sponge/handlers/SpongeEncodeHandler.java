@@ -51,10 +51,19 @@ public class SpongeEncodeHandler extends MessageToByteEncoder<Object> implements
                     throw (Error) e.getCause();
                 }
             }
+            transform(bytebuf);
         } else {
-            bytebuf.writeBytes((ByteBuf) o);
+            transform((ByteBuf) o, bytebuf);
         }
-        transform(bytebuf);
+    }
+
+    private void transform(final ByteBuf packet, final ByteBuf output) throws Exception {
+        if (!info.checkClientboundPacket()) throw CancelEncoderException.generate(null);
+        if (!info.shouldTransformPacket()) {
+            output.writeBytes(packet);
+            return;
+        }
+        info.transformClientbound(packet, output, CancelEncoderException::generate);
     }
 
     @Override
@@ -26,7 +26,8 @@ import java.util.Map;
 public class SpongeViaConfig extends AbstractViaConfig {
     private static final List<String> UNSUPPORTED = Arrays.asList("bungee-ping-interval",
             "bungee-ping-save", "bungee-servers", "velocity-ping-interval", "velocity-ping-save", "velocity-servers",
-            "quick-move-action-fix", "change-1_9-hitbox", "change-1_14-hitbox", "blockconnection-method");
+            "quick-move-action-fix", "change-1_9-hitbox", "change-1_14-hitbox", "blockconnection-method", "compression-level",
+            "chunk-translation-threads", "chunk-translation-queue-size");
 
     public SpongeViaConfig(File configFile) {
         super(new File(configFile, "config.yml"));
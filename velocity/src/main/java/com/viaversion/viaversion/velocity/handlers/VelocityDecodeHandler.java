@@ -18,6 +18,7 @@
 package com.viaversion.viaversion.velocity.handlers;
 
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelDecoderException;
 import io.netty.buffer.ByteBuf;
@@ -37,15 +38,26 @@ public class VelocityDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf bytebuf, List<Object> out) throws Exception {
+        if (info instanceof UserConnectionImpl && ((UserConnectionImpl) info).holdServerbound(bytebuf)) {
+            // Decoded once the connection resumes
+            return;
+        }
+
         if (!info.checkIncomingPacket()) throw CancelDecoderException.generate(null);
         if (!info.shouldTransformPacket()) {
             out.add(bytebuf.retain());
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
+        ByteBuf passthroughBuf = info.passthroughIncoming(bytebuf);
+        if (passthroughBuf != null) {
+            out.add(passthroughBuf);
+            return;
+        }
+
+        ByteBuf transformedBuf = ctx.alloc().buffer();
         try {
-            info.transformIncoming(transformedBuf, CancelDecoderException::generate);
+            info.transformIncoming(bytebuf, transformedBuf, CancelDecoderException::generate);
             out.add(transformedBuf.retain());
         } finally {
             transformedBuf.release();
@@ -20,18 +20,45 @@ package com.viaversion.viaversion.velocity.handlers;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
+import com.viaversion.viaversion.handlers.AsyncTransformWriter;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import java.util.List;
 
 @ChannelHandler.Sharable
 public class VelocityEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection info;
+    private final AsyncTransformWriter asyncWriter;
 
     public VelocityEncodeHandler(UserConnection info) {
         this.info = info;
+        this.asyncWriter = AsyncTransformWriter.create(info);
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+        if (asyncWriter == null || !asyncWriter.write(ctx, msg, promise, this::write)) {
+            super.write(ctx, msg, promise);
+        }
+    }
+
+    @Override
+    public void flush(final ChannelHandlerContext ctx) throws Exception {
+        if (asyncWriter == null || !asyncWriter.flush(ctx)) {
+            super.flush(ctx);
+        }
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) throws Exception {
+        // Only release held back writes if the channel is gone, not when the handler order is fixed
+        if (asyncWriter != null && !ctx.channel().isOpen()) {
+            asyncWriter.release();
+        }
+        super.handlerRemoved(ctx);
     }
 
     @Override
@@ -42,9 +69,15 @@ public class VelocityEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
+        ByteBuf passthroughBuf = info.passthroughOutgoing(bytebuf);
+        if (passthroughBuf != null) {
+            out.add(passthroughBuf);
+            return;
+        }
+
+        ByteBuf transformedBuf = ctx.alloc().buffer();
         try {
-            info.transformOutgoing(transformedBuf, CancelEncoderException::generate);
+            info.transformOutgoing(bytebuf, transformedBuf, CancelEncoderException::generate);
             out.add(transformedBuf.retain());
         } finally {
             transformedBuf.release();